@@ -0,0 +1,89 @@
+package main;
+
+import main.daemon.DaemonClient;
+import main.daemon.DaemonServer;
+import main.model.Task;
+import main.model.TaskManager;
+import main.timer.TaskTimer;
+import main.timer.TimerManager;
+import main.timer.TimerStrategyRegistry;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the task and timer engine as a local daemon (see DaemonServer)
+ * Listens on the Unix domain socket ~/.focustrack/daemon.sock, which only
+ * the user can connect to, or on another socket given with --socket. --port
+ * listens on a loopback TCP port instead, which any local process can use.
+ * Like HeadlessLauncher, nothing here loads AWT, Swing or javax.sound. Task
+ * changes are saved at most once a second, however many requests make them;
+ * timers are checkpointed as they change and everything is saved on shutdown.
+ */
+public class DaemonLauncher {
+    private static final long SAVE_DELAY_MILLIS = 1000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        SocketAddress address = DaemonClient.address(Arrays.asList(args));
+
+        TaskManager taskManager = TaskManager.getInstance();
+        TimerManager timerManager = TimerManager.getInstance();
+        TimerStrategyRegistry.getInstance().startWatching();
+        taskManager.setAutoSave(false);
+        List<TaskTimer> restored = timerManager.restoreTimers(taskManager.getTasks());
+
+        ScheduledExecutorService storage = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicBoolean savePending = new AtomicBoolean();
+        Runnable save = () -> {
+            savePending.set(false);
+            List<Task> snapshot;
+            synchronized (taskManager) {
+                snapshot = new ArrayList<>(taskManager.getTasks());
+            }
+            try {
+                taskManager.saveTasks(snapshot);
+            } catch (IOException e) {
+                System.err.println("Error saving tasks: " + e.getMessage());
+            }
+        };
+        DaemonServer server = new DaemonServer(taskManager, timerManager, () -> {
+            if (savePending.compareAndSet(false, true)) {
+                storage.schedule(save, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start(address);
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                System.err.println("Error closing the daemon socket: " + e.getMessage());
+            }
+            storage.shutdownNow();
+            timerManager.shutdown();
+            synchronized (taskManager) {
+                taskManager.saveTasks();
+            }
+            stopped.countDown();
+        }, "daemon-shutdown"));
+
+        System.out.println("FocusTrack daemon listening on " + server.getLocalAddress() + ": "
+                + taskManager.getTasks().size() + " tasks, " + restored.size() + " timers resumed");
+        // Connection threads are daemons, so keep the JVM alive until it is told to stop
+        stopped.await();
+    }
+}
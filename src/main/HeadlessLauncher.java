@@ -0,0 +1,91 @@
+package main;
+
+import main.model.TaskManager;
+import main.timer.TaskTimer;
+import main.timer.TimerEvent;
+import main.timer.TimerEventPublisher;
+import main.timer.TimerManager;
+import main.timer.TimerStrategyRegistry;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+
+/**
+ * Runs the task and timer engine without any user interface, e.g. on a server
+ * Only the model, io and timer packages are loaded: nothing here touches AWT,
+ * Swing or javax.sound. Notifications go to standard output instead of the
+ * speaker (or nowhere, with --quiet). Timers are checkpointed as they change
+ * and on shutdown (SIGTERM or Ctrl+C), so they resume on the next start.
+ */
+public class HeadlessLauncher {
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        boolean quiet = Arrays.asList(args).contains("--quiet");
+
+        TaskManager taskManager = TaskManager.getInstance();
+        TimerManager timerManager = TimerManager.getInstance();
+        TimerStrategyRegistry.getInstance().startWatching();
+
+        if (!quiet) {
+            timerManager.getEventPublisher().subscribe(new LoggingSink(),
+                    EnumSet.of(TimerEvent.Type.PHASE_COMPLETE, TimerEvent.Type.CYCLE_COMPLETE,
+                            TimerEvent.Type.TIMER_COMPLETE),
+                    TimerEventPublisher.DEFAULT_BUFFER_SIZE, TimerEventPublisher.OverflowPolicy.DROP_OLDEST);
+        }
+        List<TaskTimer> restored = timerManager.restoreTimers(taskManager.getTasks());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            timerManager.shutdown();
+            taskManager.saveTasks();
+            stopped.countDown();
+        }, "headless-shutdown"));
+
+        System.out.println("FocusTrack headless engine ready: " + taskManager.getTasks().size() + " tasks, "
+                + restored.size() + " timers resumed");
+        // Timer threads are daemons, so keep the JVM alive until it is told to stop
+        stopped.await();
+    }
+
+    /**
+     * Notification sink that writes timer completions to standard output
+     */
+    private static class LoggingSink implements Flow.Subscriber<TimerEvent> {
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(TimerEvent event) {
+            String title = event.getTask().getTitle();
+            String message;
+            switch (event.getType()) {
+                case PHASE_COMPLETE:
+                    message = (event.isWorkPhase() ? "Work" : "Break") + " phase complete";
+                    break;
+                case CYCLE_COMPLETE:
+                    message = "Cycle " + event.getCompletedCycles() + " complete";
+                    break;
+                default:
+                    message = "Timer complete";
+                    break;
+            }
+            System.out.println("[" + LocalTime.now().truncatedTo(ChronoUnit.SECONDS) + "] " + title + ": " + message);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("Timer event stream failed: " + throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -3,20 +3,73 @@ package main.app;
 import main.model.Task;
 import main.model.TaskManager;
 import main.sound.SoundManager;
+import main.daemon.DaemonClient;
+import main.daemon.DaemonServer;
 import main.timer.*;
+import main.ui.BatchConsole;
+import main.ui.TimerDisplayManager;
 import main.ui.TimerUI;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.LongAdder;
+
 public class App {
     public static void main(String[] args) throws Exception {
         System.out.println("TaskManager with Timer - Java OOP Final Project");
         System.out.println("==============================================");
         
-        // Initialize sound manager
-        SoundManager.getInstance();
-        
         // Demo mode - create and show sample tasks
         if (args.length > 0 && args[0].equals("demo")) {
             runDemoMode();
+        } else if (args.length > 0 && args[0].equals("simulate")) {
+            // Simulation mode - run many timers on virtual time
+            int timerCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            int hours = args.length > 2 ? Integer.parseInt(args[2]) : 24;
+            runSimulationMode(timerCount, hours);
+        } else if (args.length > 0 && args[0].equals("bench")) {
+            // Benchmark mode - many concurrent users on the sharded engine
+            int users = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors() * 2;
+            int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+            int shards = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+            runBenchmarkMode(users, threads, seconds, shards);
+        } else if (args.length > 0 && args[0].equals("alloc")) {
+            // Allocation check - formatting timer displays must not allocate
+            int timerCount = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+            if (!runAllocationMode(timerCount)) {
+                System.exit(1);
+            }
+        } else if (args.length > 0 && args[0].equals("stress")) {
+            // Stress mode - race timer lifecycle calls and check no timer is lost or duplicated
+            int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+            int tasks = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+            int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+            if (!runStressMode(threads, tasks, seconds)) {
+                System.exit(1);
+            }
+        } else if (args.length > 0 && args[0].equals("daemon-bench")) {
+            // Daemon benchmark - pipelined clients against an in-process daemon
+            int requests = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            int depth = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+            int connections = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+            runDaemonBenchMode(requests, depth, connections);
+        } else if (args.length > 0 && args[0].equals("batch")) {
+            // Batch mode - run a command script from a file or standard input
+            runBatchMode(args.length > 1 ? args[1] : null);
         } else {
             // Interactive mode - start the UI
             TimerUI ui = new TimerUI();
@@ -24,6 +77,19 @@ public class App {
         }
     }
     
+    private static void runBatchMode(String scriptFile) throws IOException {
+        BatchConsole console = new BatchConsole(System.out, System.err);
+        int failed;
+        try (BufferedReader script = scriptFile != null
+                ? Files.newBufferedReader(Paths.get(scriptFile))
+                : new BufferedReader(new InputStreamReader(System.in))) {
+            failed = console.run(script);
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+    
     private static void runDemoMode() throws InterruptedException {
         TaskManager manager = TaskManager.getInstance();
         TimerManager timerManager = TimerManager.getInstance();
@@ -49,7 +115,7 @@ public class App {
         
         // Start a Pomodoro timer for report task
         System.out.println("\n1. Starting Pomodoro timer for 'Finish report' task");
-        TimerStrategy pomodoroStrategy = new PomodoroTimer();
+        TimerStrategy pomodoroStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.POMODORO);
         System.out.println("Strategy: " + pomodoroStrategy.getName() + " - " + pomodoroStrategy.getDescription());
         
         TaskTimer reportTimer = timerManager.startTimer(reportTask, pomodoroStrategy);
@@ -62,7 +128,7 @@ public class App {
         
         // Start a Short Break timer for reading task
         System.out.println("\n2. Starting Short Break timer for 'Read chapter 4' task");
-        TimerStrategy shortBreakStrategy = new ShortBreakTimer();
+        TimerStrategy shortBreakStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.SHORT_BREAK);
         System.out.println("Strategy: " + shortBreakStrategy.getName() + " - " + shortBreakStrategy.getDescription());
         
         TaskTimer readingTimer = timerManager.startTimer(readingTask, shortBreakStrategy);
@@ -73,7 +139,7 @@ public class App {
         
         // Start a Long Break timer for coding task
         System.out.println("\n3. Starting Long Break timer for 'Implement timer feature' task");
-        TimerStrategy longBreakStrategy = new LongBreakTimer();
+        TimerStrategy longBreakStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.LONG_BREAK);
         System.out.println("Strategy: " + longBreakStrategy.getName() + " - " + longBreakStrategy.getDescription());
         
         TaskTimer codingTimer = timerManager.startTimer(codingTask, longBreakStrategy);
@@ -99,6 +165,309 @@ public class App {
         System.out.println("\nRun the application without parameters to start in interactive mode.");
     }
     
+    /**
+     * Run back-to-back timer cycles for many tasks over the given number of
+     * hours of virtual time, and report how long the simulation took
+     */
+    private static void runSimulationMode(int timerCount, int hours) {
+        VirtualTimerScheduler scheduler = new VirtualTimerScheduler();
+        TimerManager timerManager = new TimerManager(scheduler);
+        TimerStrategyType[] types = {
+            TimerStrategyType.POMODORO, TimerStrategyType.SHORT_BREAK, TimerStrategyType.LONG_BREAK
+        };
+        long[] completedCycles = {0};
+        
+        System.out.println("\nSimulating " + timerCount + " timers for " + hours + " hours...");
+        long startNanos = System.nanoTime();
+        
+        for (int i = 0; i < timerCount; i++) {
+            // Tasks are not added to the TaskManager so nothing is saved
+            Task task = new Task("Simulated task " + i, "");
+            TimerStrategy strategy = TimerStrategyFactory.createStrategy(types[i % types.length]);
+            startSimulatedTimer(timerManager, task, strategy, completedCycles);
+        }
+        scheduler.advanceBy(hours * 3_600_000L);
+        timerManager.clearAllTimers();
+        
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.println("Completed cycles: " + completedCycles[0]);
+        System.out.println("Scheduler executions: " + scheduler.getExecutedTaskCount());
+        System.out.println("Wall-clock time: " + elapsedMillis + " ms");
+    }
+    
+    /**
+     * Measure timer operations per second with many concurrent users, on a
+     * single shard (like the singleton TimerManager) and on the given number
+     * of shards (one per core by default)
+     */
+    private static void runBenchmarkMode(int users, int threads, int seconds, int shards) throws InterruptedException {
+        System.out.println("\nBenchmarking " + users + " users on " + threads + " threads for "
+                + seconds + "s per run (" + Runtime.getRuntime().availableProcessors() + " cores)...");
+        runShardBenchmark(1, users, threads, seconds);
+        if (shards > 1) {
+            runShardBenchmark(shards, users, threads, seconds);
+        }
+    }
+    
+    private static void runShardBenchmark(int shardCount, int users, int threads, int seconds) throws InterruptedException {
+        ShardedTimerEngine engine = new ShardedTimerEngine(shardCount);
+        TimerStrategy strategy = TimerStrategyFactory.createStrategy(TimerStrategyType.POMODORO);
+        String[] userIds = new String[users];
+        Task[] userTasks = new Task[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user-" + i;
+            userTasks[i] = new Task("Benchmark task " + i, "");
+            engine.startTimer(userIds[i], userTasks[i], strategy);
+        }
+        
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        LongAdder operations = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                long done = 0;
+                while ((done & 255) != 0 || System.nanoTime() < deadline) {
+                    int user = random.nextInt(users);
+                    // A user's typical interaction: pause, resume, look at their timers
+                    engine.pauseTimer(userIds[user], userTasks[user]);
+                    engine.resumeTimer(userIds[user], userTasks[user]);
+                    engine.getActiveTimers(userIds[user]);
+                    done += 3;
+                }
+                operations.add(done);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        long aggregateStart = System.nanoTime();
+        int active = engine.getActiveTimerCount();
+        long aggregateMicros = (System.nanoTime() - aggregateStart) / 1000;
+        engine.shutdown();
+        
+        System.out.printf("%d shard(s): %,d ops/s, aggregate count of %,d timers in %,d us%n",
+                shardCount, operations.sum() / seconds, active, aggregateMicros);
+    }
+    
+    /**
+     * Format many timers the way the console displays do, into one reused
+     * buffer, and measure the bytes this thread allocates per timer once
+     * warmed up
+     *
+     * @return false if formatting allocated anything
+     */
+    private static boolean runAllocationMode(int timerCount) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TimerScheduler scheduler = new VirtualTimerScheduler();
+        TimerStrategy strategy = TimerStrategyFactory.createStrategy(TimerStrategyType.POMODORO);
+        TimerDisplayManager display = new TimerDisplayManager();
+        TaskTimer[] timers = new TaskTimer[timerCount];
+        for (int i = 0; i < timerCount; i++) {
+            timers[i] = new TaskTimer(new Task("Allocation task " + i, ""), strategy, scheduler);
+            // Spread the timers over the session so every phase and clock width is formatted
+            timers[i].seek(i * 997L % strategy.getPhaseSchedule().getTotalMillis());
+        }
+        System.out.println("\nFormatting " + timerCount + " timers...");
+        
+        StringBuilder out = new StringBuilder(256);
+        long threadId = Thread.currentThread().getId();
+        long bytes = 0;
+        long nanos = 0;
+        for (int round = 0; round < 20; round++) { // The last round is measured, once compiled
+            long startBytes = threads.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+            for (TaskTimer timer : timers) {
+                out.setLength(0);
+                timer.appendStatus(out).append('\n');
+                display.appendSingleTimer(out, timer).append(' ');
+                TimeFormat.appendProgressBar(out, timer.getRemainingSeconds(), timer.getPhaseDurationSeconds(), 40);
+            }
+            nanos = System.nanoTime() - startNanos;
+            bytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+        }
+        
+        double bytesPerTimer = (double) bytes / timerCount;
+        System.out.printf("%.1f bytes and %d ns per timer%n", bytesPerTimer, nanos / timerCount);
+        boolean passed = bytesPerTimer == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+    
+    /**
+     * Race start, cancel, pause, resume and reset calls for a few tasks from
+     * many threads, then check every timer that is still running is the one
+     * registered for its task: none was lost (running but unregistered) or
+     * duplicated (two running for one task)
+     *
+     * @return false if the check failed
+     */
+    private static boolean runStressMode(int threads, int taskCount, int seconds) throws InterruptedException {
+        TimerManager timerManager = new TimerManager(new VirtualTimerScheduler());
+        TimerStrategy strategy = TimerStrategyFactory.createStrategy(TimerStrategyType.POMODORO);
+        Task[] tasks = new Task[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            tasks[i] = new Task("Stress task " + i, "");
+        }
+        System.out.println("\nRacing timer lifecycle calls on " + taskCount + " tasks from " + threads
+                + " threads for " + seconds + "s...");
+        
+        Queue<TaskTimer> started = new ConcurrentLinkedQueue<>(); // Every timer ever started
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        LongAdder operations = new LongAdder();
+        CyclicBarrier go = new CyclicBarrier(threads);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                long done = 0;
+                try {
+                    go.await();
+                } catch (Exception e) {
+                    return;
+                }
+                while ((done & 255) != 0 || System.nanoTime() < deadline) {
+                    Task task = tasks[random.nextInt(taskCount)];
+                    switch (random.nextInt(5)) {
+                        case 0: started.add(timerManager.startTimer(task, strategy)); break;
+                        case 1: timerManager.cancelTimer(task); break;
+                        case 2: timerManager.pauseTimer(task); break;
+                        case 3: timerManager.resumeTimer(task); break;
+                        default: timerManager.resetTimer(task); break;
+                    }
+                    done++;
+                }
+                operations.add(done);
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        int lost = 0;
+        int duplicated = 0;
+        Map<Task, Integer> running = new HashMap<>();
+        for (TaskTimer timer : started) {
+            if (!timer.isRunning()) {
+                continue;
+            }
+            if (timerManager.getTimerForTask(timer.getTask()) != timer) {
+                lost++;
+            }
+            // Counted whether registered or not: any second running timer for a task is a duplicate
+            if (running.merge(timer.getTask(), 1, Integer::sum) > 1) {
+                duplicated++;
+            }
+        }
+        timerManager.clearAllTimers();
+        
+        System.out.printf("%,d operations, %,d timers started: %d lost, %d duplicated%n",
+                operations.sum(), started.size(), lost, duplicated);
+        boolean passed = lost == 0 && duplicated == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+    
+    // Start a timer that starts itself again each time its cycle completes
+    private static void startSimulatedTimer(TimerManager timerManager, Task task, TimerStrategy strategy, long[] completedCycles) {
+        TaskTimer timer = timerManager.startTimer(task, strategy);
+        timer.setListener(new TaskTimer.TimerListener() {
+            @Override
+            public void onTick(int seconds) {
+            }
+            
+            @Override
+            public void onPhaseComplete(boolean wasWorkPhase) {
+                if (wasWorkPhase) {
+                    task.incrementPomodoros();
+                }
+            }
+            
+            @Override
+            public void onTimerComplete() {
+                completedCycles[0]++;
+                startSimulatedTimer(timerManager, task, strategy, completedCycles);
+            }
+        });
+    }
+    
+    /**
+     * Measure daemon requests per second: clients on loopback TCP, each
+     * keeping a number of requests in flight, run a mix of task and timer
+     * requests against their own tasks. Nothing is saved or checkpointed.
+     */
+    private static void runDaemonBenchMode(int requests, int depth, int connections) throws Exception {
+        TaskManager taskManager = TaskManager.getInstance();
+        taskManager.setAutoSave(false);
+        TimerManager timerManager = new TimerManager(SystemTimerScheduler.getInstance());
+        DaemonServer server = new DaemonServer(taskManager, timerManager, () -> { });
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        SocketAddress address = server.getLocalAddress();
+        System.out.println("\nBenchmarking " + requests + " daemon requests over " + connections
+                + " connections, " + depth + " in flight each ("
+                + Runtime.getRuntime().availableProcessors() + " cores)...");
+        
+        int perConnection = requests / connections;
+        CyclicBarrier ready = new CyclicBarrier(connections + 1);
+        LongAdder errors = new LongAdder();
+        Thread[] clients = new Thread[connections];
+        for (int c = 0; c < connections; c++) {
+            clients[c] = new Thread(() -> {
+                try (DaemonClient client = DaemonClient.connect(address)) {
+                    String[] taskIds = new String[100];
+                    for (int i = 0; i < taskIds.length; i++) {
+                        taskIds[i] = client.call("add", "Benchmark task " + i).get(2);
+                    }
+                    ready.await();
+                    for (int sent = 0; sent < perConnection; ) {
+                        int batch = Math.min(depth, perConnection - sent);
+                        for (int i = 0; i < batch; i++, sent++) {
+                            String taskId = taskIds[(sent / 6) % taskIds.length];
+                            // A status bar's typical traffic, with some timer control
+                            switch (sent % 6) {
+                                case 0: client.send("get", taskId); break;
+                                case 1: client.send("start", taskId, "short_break"); break;
+                                case 2: client.send("timer", taskId); break;
+                                case 3: client.send("pause", taskId); break;
+                                case 4: client.send("resume", taskId); break;
+                                default: client.send("ping"); break;
+                            }
+                        }
+                        client.flush();
+                        for (int i = 0; i < batch; i++) {
+                            if (!client.readLine().get(1).equals("OK")) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                    ready.await();
+                } catch (Exception e) {
+                    System.err.println("Benchmark client failed: " + e);
+                }
+            });
+            clients[c].start();
+        }
+        ready.await();
+        long startNanos = System.nanoTime();
+        ready.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        for (Thread client : clients) {
+            client.join();
+        }
+        server.close();
+        timerManager.clearAllTimers();
+        
+        long total = (long) perConnection * connections;
+        System.out.println(total + " requests in " + elapsedNanos / 1_000_000 + " ms: "
+                + Math.round(total * 1e9 / elapsedNanos) + " requests/s, " + errors.sum() + " errors");
+    }
+    
     private static TaskTimer.TimerListener createDemoListener(final Task task, final TaskTimer timer, final SoundManager soundManager) {
         return new TaskTimer.TimerListener() {
             @Override
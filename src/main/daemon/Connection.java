@@ -0,0 +1,214 @@
+package main.daemon;
+
+import main.timer.TimerEvent;
+import main.timer.TimerEventPublisher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One client of the daemon, served on a thread of its own
+ * Requests are pipelined: the client may send any number before reading the
+ * responses. Everything that arrives in one read is handled in order and
+ * answered with a single write, so a client streaming requests costs one
+ * read and one write system call per batch rather than per request. Timer
+ * events the client subscribed to are written between response batches, one at a
+ * time as the client's socket accepts them; a slow client loses the oldest
+ * events rather than holding up the timers.
+ */
+class Connection implements Runnable, Flow.Subscriber<TimerEvent> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final RequestHandler handler;
+    private final TimerEventPublisher publisher;
+    private final Set<Connection> connections; // Open connections, which this one leaves on close
+    private final Object writeLock = new Object();
+    private final AtomicBoolean closing = new AtomicBoolean();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean open = true;
+
+    Connection(SocketChannel channel, RequestHandler handler, TimerEventPublisher publisher,
+               Set<Connection> connections) {
+        this.channel = channel;
+        this.handler = handler;
+        this.publisher = publisher;
+        this.connections = connections;
+        connections.add(this);
+    }
+
+    @Override
+    public void run() {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        StringBuilder responses = new StringBuilder(BUFFER_SIZE);
+        try {
+            while (open && channel.read(input) >= 0) {
+                input.flip();
+                int lineStart = 0;
+                for (int i = 0; i < input.limit() && open; i++) {
+                    if (input.get(i) == '\n') {
+                        int end = i > lineStart && input.get(i - 1) == '\r' ? i - 1 : i;
+                        String line = new String(input.array(), lineStart, end - lineStart, StandardCharsets.UTF_8);
+                        request(line, responses);
+                        lineStart = i + 1;
+                    }
+                }
+                input.position(lineStart);
+                input.compact();
+                if (!input.hasRemaining()) {
+                    responses.append(DaemonProtocol.EVENT_ID).append(DaemonProtocol.SEPARATOR)
+                             .append(DaemonProtocol.ERROR).append(DaemonProtocol.SEPARATOR)
+                             .append("Request longer than ").append(BUFFER_SIZE).append(" bytes\n");
+                    open = false;
+                }
+                write(responses);
+                responses.setLength(0);
+            }
+        } catch (IOException e) {
+            // The client went away; nothing to report to it
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Close the connection, e.g. on shutdown
+     */
+    void close() {
+        open = false;
+        if (!closing.compareAndSet(false, true)) {
+            return;
+        }
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+        connections.remove(this);
+    }
+
+    private void request(String line, StringBuilder out) {
+        if (line.isEmpty()) {
+            return;
+        }
+        List<String> fields = DaemonProtocol.split(line);
+        if (fields.size() < 2 || fields.get(0).isEmpty() || fields.get(1).isEmpty()) {
+            // Not a client, e.g. an HTTP request from a web page: run nothing else it sent
+            out.append(DaemonProtocol.EVENT_ID).append(DaemonProtocol.SEPARATOR).append(DaemonProtocol.ERROR);
+            DaemonProtocol.appendField(out, "Expected <id> TAB <command>; closing").append('\n');
+            open = false;
+            return;
+        }
+        String id = fields.get(0);
+        String command = fields.get(1);
+        int start = out.length();
+        try {
+            switch (command) {
+                case "subscribe":
+                    subscribe(fields);
+                    out.append(id).append(DaemonProtocol.SEPARATOR).append(DaemonProtocol.OK).append('\n');
+                    break;
+                case "unsubscribe":
+                    unsubscribe();
+                    out.append(id).append(DaemonProtocol.SEPARATOR).append(DaemonProtocol.OK).append('\n');
+                    break;
+                case "quit":
+                    out.append(id).append(DaemonProtocol.SEPARATOR).append(DaemonProtocol.OK).append('\n');
+                    open = false;
+                    break;
+                default:
+                    handler.handle(fields, out);
+            }
+        } catch (RuntimeException e) {
+            // Drop any partial response, e.g. rows of a listing that failed
+            out.setLength(start);
+            out.append(id).append(DaemonProtocol.SEPARATOR).append(DaemonProtocol.ERROR);
+            DaemonProtocol.appendField(out, e.getMessage() != null ? e.getMessage() : e.toString()).append('\n');
+        }
+    }
+
+    /**
+     * Subscribe to the event types listed, comma-separated, or to all but TICK
+     */
+    private void subscribe(List<String> fields) {
+        Set<TimerEvent.Type> types;
+        if (fields.size() > 2 && !fields.get(2).isEmpty()) {
+            types = EnumSet.noneOf(TimerEvent.Type.class);
+            for (String type : fields.get(2).split(",")) {
+                try {
+                    types.add(TimerEvent.Type.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown event type: " + type);
+                }
+            }
+        } else {
+            types = EnumSet.complementOf(EnumSet.of(TimerEvent.Type.TICK));
+        }
+        unsubscribe();
+        publisher.subscribe(this, types, TimerEventPublisher.DEFAULT_BUFFER_SIZE,
+                TimerEventPublisher.OverflowPolicy.DROP_OLDEST);
+    }
+
+    private void unsubscribe() {
+        Flow.Subscription current = subscription;
+        subscription = null;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private void write(CharSequence text) throws IOException {
+        if (text.length() == 0) {
+            return;
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+        synchronized (writeLock) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(TimerEvent event) {
+        try {
+            write(DaemonProtocol.appendEvent(new StringBuilder(64), event));
+        } catch (IOException e) {
+            close();
+            return;
+        }
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.request(1); // Ask for the next event only once this one is written
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        subscription = null;
+    }
+
+    @Override
+    public void onComplete() {
+        subscription = null;
+    }
+}
@@ -0,0 +1,155 @@
+package main.daemon;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal client for the daemon, for scripts and load tests
+ * Requests are buffered until flush(), so many can be pipelined in one
+ * write. From the command line it sends one request and prints the reply:
+ * <pre>
+ *   java main.daemon.DaemonClient [--socket &lt;path&gt; | --port &lt;port&gt;] &lt;command&gt; [&lt;argument&gt;...]
+ * </pre>
+ * Only use a client from one thread at a time.
+ */
+public class DaemonClient implements Closeable {
+    public static final int DEFAULT_PORT = 7878;
+    // Only its owner may connect (see DaemonServer.start)
+    public static final Path DEFAULT_SOCKET = Paths.get(System.getProperty("user.home"), ".focustrack", "daemon.sock");
+
+    private final SocketChannel channel;
+    private final BufferedReader in;
+    private final Writer out;
+    private final StringBuilder request = new StringBuilder();
+    private long nextId;
+
+    private DaemonClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+    }
+
+    public static DaemonClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        channel.connect(address);
+        return new DaemonClient(channel);
+    }
+
+    /**
+     * Daemon address from --socket or --port options, or the default Unix
+     * domain socket
+     */
+    public static SocketAddress address(List<String> options) {
+        int socket = options.indexOf("--socket");
+        if (socket >= 0 && socket + 1 < options.size()) {
+            return UnixDomainSocketAddress.of(options.get(socket + 1));
+        }
+        int port = options.indexOf("--port");
+        if (port < 0) {
+            return UnixDomainSocketAddress.of(DEFAULT_SOCKET);
+        }
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                port + 1 < options.size() ? Integer.parseInt(options.get(port + 1)) : DEFAULT_PORT);
+    }
+
+    /**
+     * Queue a request; it is sent on the next flush()
+     *
+     * @return The request's id, which its response starts with
+     */
+    public String send(String command, String... arguments) throws IOException {
+        String id = Long.toString(++nextId);
+        request.setLength(0);
+        request.append(id);
+        DaemonProtocol.appendField(request, command);
+        for (String argument : arguments) {
+            DaemonProtocol.appendField(request, argument);
+        }
+        out.append(request).append('\n');
+        return id;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Next line from the daemon, split into fields: a response, a ROW of a
+     * listing or an event; null once the daemon has closed the connection
+     */
+    public List<String> readLine() throws IOException {
+        String line = in.readLine();
+        return line != null ? DaemonProtocol.split(line) : null;
+    }
+
+    /**
+     * Send one request and wait for its response, skipping events and rows
+     *
+     * @return The response's fields: id, OK or ERR, then the result
+     */
+    public List<String> call(String command, String... arguments) throws IOException {
+        String id = send(command, arguments);
+        flush();
+        List<String> fields;
+        while ((fields = readLine()) != null) {
+            if (fields.get(0).equals(id) && !fields.get(1).equals(DaemonProtocol.ROW)) {
+                return fields;
+            }
+        }
+        throw new IOException("The daemon closed the connection");
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> options = Arrays.asList(args);
+        int first = 0;
+        while (first < args.length && args[first].startsWith("--")) {
+            first += 2;
+        }
+        if (first >= args.length) {
+            System.err.println("Usage: DaemonClient [--socket <path> | --port <port>] <command> [<argument>...]");
+            System.exit(2);
+        }
+
+        try (DaemonClient client = connect(address(options))) {
+            String id = client.send(args[first], Arrays.copyOfRange(args, first + 1, args.length));
+            client.flush();
+            boolean subscribed = args[first].equals("subscribe");
+            List<String> fields;
+            while ((fields = client.readLine()) != null) {
+                System.out.println(String.join("\t", fields));
+                if (fields.get(0).equals(id) && !fields.get(1).equals(DaemonProtocol.ROW)) {
+                    if (fields.get(1).equals(DaemonProtocol.ERROR)) {
+                        System.exit(1);
+                    }
+                    if (!subscribed) {
+                        return; // Subscribers keep printing events until interrupted
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package main.daemon;
+
+import main.model.Task;
+import main.timer.TaskTimer;
+import main.timer.TimerEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoding of the daemon's line protocol, shared by the server and DaemonClient
+ * A message is one line of tab-separated fields. Tabs, line breaks and
+ * backslashes inside a field are escaped as \t, \n, \r and \\, so titles and
+ * descriptions can hold anything.
+ */
+public final class DaemonProtocol {
+    public static final char SEPARATOR = '\t';
+    public static final String OK = "OK";
+    public static final String ERROR = "ERR";
+    public static final String ROW = "ROW";
+    public static final String EVENT = "EVENT";
+    public static final String EVENT_ID = "*"; // Request id of pushed events
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * Split a line into its fields, undoing the escapes
+     */
+    public static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                field.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Append a field, escaping it, after a separator
+     */
+    public static StringBuilder appendField(StringBuilder out, String value) {
+        out.append(SEPARATOR);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Append a task as: id, status, completed pomodoros, title, description
+     */
+    static StringBuilder appendTask(StringBuilder out, Task task) {
+        appendField(out, task.getId());
+        out.append(SEPARATOR).append(task.getStatus());
+        out.append(SEPARATOR).append(task.getCompletedPomodoros());
+        appendField(out, task.getTitle());
+        return appendField(out, task.getDescription() != null ? task.getDescription() : "");
+    }
+
+    /**
+     * Append a timer as: task id, running or paused, work or break,
+     * remaining seconds, strategy name
+     */
+    static StringBuilder appendTimer(StringBuilder out, TaskTimer timer) {
+        appendField(out, timer.getTask().getId());
+        out.append(SEPARATOR).append(timer.isRunning() ? "running" : "paused");
+        out.append(SEPARATOR).append(timer.isWorkPhase() ? "work" : "break");
+        out.append(SEPARATOR).append(timer.getRemainingSeconds());
+        return appendField(out, timer.getStrategy().getName());
+    }
+
+    /**
+     * Append an event line: *, EVENT, type, task id and, for some types, a value
+     * (remaining seconds for TICK, work or break for PHASE_COMPLETE, cycles
+     * done for CYCLE_COMPLETE)
+     */
+    static StringBuilder appendEvent(StringBuilder out, TimerEvent event) {
+        out.append(EVENT_ID).append(SEPARATOR).append(EVENT).append(SEPARATOR).append(event.getType());
+        appendField(out, event.getTask().getId());
+        switch (event.getType()) {
+            case TICK:
+                out.append(SEPARATOR).append(event.getRemainingSeconds());
+                break;
+            case PHASE_COMPLETE:
+                out.append(SEPARATOR).append(event.isWorkPhase() ? "work" : "break");
+                break;
+            case CYCLE_COMPLETE:
+                out.append(SEPARATOR).append(event.getCompletedCycles());
+                break;
+            default:
+                break;
+        }
+        return out.append('\n');
+    }
+}
@@ -0,0 +1,165 @@
+package main.daemon;
+
+import main.model.TaskManager;
+import main.timer.TimerManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves tasks and timers to local clients such as editors, status bars and scripts
+ * Listens on a Unix domain socket that only its owner can connect to, or on
+ * a loopback TCP port. There is no authentication, so any local process can
+ * use a TCP port; prefer the socket. Each request is a
+ * line of tab-separated fields (see DaemonProtocol): a request id chosen by
+ * the client, a command and its arguments. Each response starts with the
+ * request's id, then OK or ERR and the result; listings send ROW lines
+ * before the OK. Responses come in request order, so requests can be
+ * pipelined. Commands:
+ * <pre>
+ *   ping
+ *   add &lt;title&gt; [&lt;description&gt;]        -&gt; OK &lt;task id&gt;
+ *   get &lt;task id&gt;                       -&gt; OK &lt;id&gt; &lt;status&gt; &lt;pomodoros&gt; &lt;title&gt; &lt;description&gt;
+ *   edit &lt;task id&gt; &lt;title&gt; [&lt;description&gt;]
+ *   complete | delete &lt;task id&gt;          (cancels the task's timer)
+ *   list                                -&gt; ROW per task, then OK &lt;count&gt;
+ *   start &lt;task id&gt; [&lt;strategy&gt;]        -&gt; OK &lt;task id&gt; running|paused work|break &lt;seconds&gt; &lt;strategy&gt;
+ *   pause | resume | reset | cancel &lt;task id&gt;
+ *   timer &lt;task id&gt;                     -&gt; OK and the timer, as for start
+ *   timers                              -&gt; ROW per active timer, then OK &lt;count&gt;
+ *   subscribe [&lt;TYPE&gt;,...]              (default: all but TICK)
+ *   unsubscribe
+ *   quit
+ * </pre>
+ * Subscribed events arrive at any time between responses, with the request
+ * id "*": fields *, EVENT, the type, the task id and for some types a value.
+ * Each connection is served by a thread of its own. A connection is closed
+ * at the first line that isn't a request, so something that isn't a client,
+ * such as a browser sending an HTTP request to the port, can't run commands.
+ */
+public class DaemonServer implements Closeable {
+    private final RequestHandler handler;
+    private final TimerManager timerManager;
+    private final ExecutorService connectionThreads;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private ServerSocketChannel serverChannel;
+    private Path socketFile; // Deleted on close, for Unix domain sockets
+
+    /**
+     * @param tasksChanged Called after a request changed tasks; the server
+     *                     itself never saves them. Requests hold the
+     *                     TaskManager's lock, so a saver should too while
+     *                     copying the task list.
+     */
+    public DaemonServer(TaskManager taskManager, TimerManager timerManager, Runnable tasksChanged) {
+        this.handler = new RequestHandler(taskManager, timerManager, tasksChanged);
+        this.timerManager = timerManager;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.connectionThreads = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "daemon-connection-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start listening on an address: a UnixDomainSocketAddress, or an
+     * InetSocketAddress (port 0 picks a free port). A socket file is
+     * readable and writable by its owner only, and a directory created for
+     * it is private to its owner.
+     */
+    public synchronized void start(SocketAddress address) throws IOException {
+        if (address instanceof UnixDomainSocketAddress) {
+            socketFile = ((UnixDomainSocketAddress) address).getPath().toAbsolutePath();
+            createPrivateDirectory(socketFile.getParent());
+            Files.deleteIfExists(socketFile); // Left behind by a daemon that was killed
+            serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            serverChannel.bind(address);
+            setPermissions(socketFile, "rw-------");
+        } else {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(address);
+        }
+        ServerSocketChannel listening = serverChannel;
+        Thread acceptThread = new Thread(() -> acceptConnections(listening), "daemon-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Address being listened on, e.g. to find the port picked for port 0
+     */
+    public synchronized SocketAddress getLocalAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Stop listening and close every connection
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverChannel == null) {
+            return;
+        }
+        serverChannel.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        connectionThreads.shutdown();
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+    }
+
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        if (directory != null && !Files.isDirectory(directory)) {
+            Files.createDirectories(directory);
+            setPermissions(directory, "rwx------");
+        }
+    }
+
+    private static void setPermissions(Path path, String permissions) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(permissions));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system; access is left to its own defaults
+        }
+    }
+
+    private void acceptConnections(ServerSocketChannel serverChannel) {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                if (channel.getRemoteAddress() instanceof InetSocketAddress) {
+                    // Pipelined responses are written in batches; don't hold them back
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+                connectionThreads.execute(new Connection(channel, handler, timerManager.getEventPublisher(),
+                        connections));
+            } catch (IOException e) {
+                if (serverChannel.isOpen()) {
+                    System.err.println("Error accepting a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
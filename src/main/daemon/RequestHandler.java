@@ -0,0 +1,191 @@
+package main.daemon;
+
+import main.model.Task;
+import main.model.TaskManager;
+import main.timer.TaskTimer;
+import main.timer.TimerManager;
+import main.timer.TimerStrategy;
+import main.timer.TimerStrategyRegistry;
+import main.timer.TimerStrategyType;
+
+import java.util.List;
+
+/**
+ * Runs task and timer requests for all daemon connections
+ * TaskManager is not thread-safe, so requests run one at a time, each holding
+ * the TaskManager's lock; a request takes microseconds, far less than a
+ * connection spends on I/O. Other code can take a consistent copy of the
+ * task list under the same lock. Requests that change tasks call the change
+ * callback instead of saving, so the caller can write the file once for
+ * many changes.
+ */
+class RequestHandler {
+    private final TaskManager taskManager;
+    private final TimerManager timerManager;
+    private final TimerStrategyRegistry strategyRegistry;
+    private final Runnable tasksChanged;
+
+    RequestHandler(TaskManager taskManager, TimerManager timerManager, Runnable tasksChanged) {
+        this.taskManager = taskManager;
+        this.timerManager = timerManager;
+        this.strategyRegistry = TimerStrategyRegistry.getInstance();
+        this.tasksChanged = tasksChanged;
+    }
+
+    /**
+     * Run a request and append its response
+     *
+     * @param fields The request: id, command, arguments
+     * @param out Receives the response lines
+     * @throws IllegalArgumentException If the request is invalid; the caller reports it
+     */
+    void handle(List<String> fields, StringBuilder out) {
+        synchronized (taskManager) {
+            run(fields, out);
+        }
+    }
+
+    private void run(List<String> fields, StringBuilder out) {
+        String id = fields.get(0);
+        String command = fields.size() > 1 ? fields.get(1) : "";
+        switch (command) {
+            case "ping":
+                ok(out, id).append('\n');
+                break;
+            case "add": {
+                Task task = new Task(text(argument(fields, 2, "title")), fields.size() > 3 ? text(fields.get(3)) : "");
+                taskManager.addTask(task);
+                tasksChanged.run();
+                DaemonProtocol.appendField(ok(out, id), task.getId()).append('\n');
+                break;
+            }
+            case "get":
+                DaemonProtocol.appendTask(ok(out, id), task(fields)).append('\n');
+                break;
+            case "edit": {
+                Task task = task(fields);
+                String title = text(argument(fields, 3, "title"));
+                String description = fields.size() > 4 ? text(fields.get(4)) : task.getDescription();
+                task.setTitle(title);
+                task.setDescription(description);
+                tasksChanged.run();
+                ok(out, id).append('\n');
+                break;
+            }
+            case "complete": {
+                Task task = task(fields);
+                task.markCompleted();
+                timerManager.cancelTimer(task);
+                tasksChanged.run();
+                ok(out, id).append('\n');
+                break;
+            }
+            case "delete": {
+                Task task = task(fields);
+                timerManager.cancelTimer(task);
+                taskManager.deleteTask(task);
+                tasksChanged.run();
+                ok(out, id).append('\n');
+                break;
+            }
+            case "list": {
+                List<Task> tasks = taskManager.getTasks();
+                for (Task task : tasks) {
+                    DaemonProtocol.appendTask(row(out, id), task).append('\n');
+                }
+                ok(out, id).append(DaemonProtocol.SEPARATOR).append(tasks.size()).append('\n');
+                break;
+            }
+            case "start": {
+                Task task = task(fields);
+                TaskTimer timer = timerManager.startTimer(task, strategy(fields.size() > 3 ? fields.get(3) : ""));
+                DaemonProtocol.appendTimer(ok(out, id), timer).append('\n');
+                break;
+            }
+            case "pause":
+                timerManager.pauseTimer(timerOf(fields).getTask());
+                ok(out, id).append('\n');
+                break;
+            case "resume":
+                timerManager.resumeTimer(timerOf(fields).getTask());
+                ok(out, id).append('\n');
+                break;
+            case "reset":
+                timerManager.resetTimer(timerOf(fields).getTask());
+                ok(out, id).append('\n');
+                break;
+            case "cancel":
+                timerManager.cancelTimer(timerOf(fields).getTask());
+                ok(out, id).append('\n');
+                break;
+            case "timer":
+                DaemonProtocol.appendTimer(ok(out, id), timerOf(fields)).append('\n');
+                break;
+            case "timers": {
+                int[] count = {0};
+                timerManager.forEachActiveTimer(timer -> {
+                    DaemonProtocol.appendTimer(row(out, id), timer).append('\n');
+                    count[0]++;
+                });
+                ok(out, id).append(DaemonProtocol.SEPARATOR).append(count[0]).append('\n');
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    private static StringBuilder ok(StringBuilder out, String id) {
+        return out.append(id).append(DaemonProtocol.SEPARATOR).append(DaemonProtocol.OK);
+    }
+
+    private static StringBuilder row(StringBuilder out, String id) {
+        return out.append(id).append(DaemonProtocol.SEPARATOR).append(DaemonProtocol.ROW);
+    }
+
+    private static String argument(List<String> fields, int index, String name) {
+        if (fields.size() <= index || fields.get(index).isEmpty()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return fields.get(index);
+    }
+
+    /**
+     * Check a title or description can be stored: the tasks file is one
+     * line per task with |-separated fields
+     */
+    private static String text(String value) {
+        if (value.indexOf('|') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Titles and descriptions can't contain | or line breaks");
+        }
+        return value;
+    }
+
+    private Task task(List<String> fields) {
+        String taskId = argument(fields, 2, "task id");
+        Task task = taskManager.getTask(taskId);
+        if (task == null) {
+            throw new IllegalArgumentException("No such task: " + taskId);
+        }
+        return task;
+    }
+
+    private TaskTimer timerOf(List<String> fields) {
+        TaskTimer timer = timerManager.getTimerForTask(task(fields));
+        if (timer == null) {
+            throw new IllegalArgumentException("No timer for task: " + fields.get(2));
+        }
+        return timer;
+    }
+
+    private TimerStrategy strategy(String name) {
+        if (name.isEmpty()) {
+            return strategyRegistry.getBuiltIn(TimerStrategyType.POMODORO);
+        }
+        TimerStrategy strategy = strategyRegistry.findStrategy(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown timer strategy: " + name);
+        }
+        return strategy;
+    }
+}
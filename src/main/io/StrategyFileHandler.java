@@ -0,0 +1,171 @@
+package main.io;
+
+import main.timer.ImmutableTimerStrategy;
+import main.timer.PhaseSchedule;
+import main.timer.TimerStrategy;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Handles saving and loading timer strategy definitions to/from a file
+ * One strategy per line: name|description|work|break|cycles|longBreak
+ * Durations are in seconds, or in milliseconds with an "ms" suffix (e.g. 1500ms)
+ * In names and descriptions, |, \ and line breaks are written as \|, \\, \n and \r,
+ * and a leading # as \#
+ * Blank lines and lines starting with # are ignored
+ */
+public class StrategyFileHandler {
+    private static final String DEFAULT_STRATEGIES_PATH = "src/main/resources/strategies.txt";
+    private final String filePath;
+
+    public StrategyFileHandler() {
+        this(DEFAULT_STRATEGIES_PATH);
+    }
+
+    public StrategyFileHandler(String filePath) {
+        this.filePath = filePath;
+        // Ensure the directory exists
+        File file = new File(filePath);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+    }
+
+    public Path getPath() {
+        return Paths.get(filePath);
+    }
+
+    /**
+     * Save strategy definitions to the file
+     */
+    public void saveStrategies(Collection<? extends TimerStrategy> strategies) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            writer.write("# name|description|workSeconds|breakSeconds|cycles|longBreakSeconds (append ms for milliseconds)");
+            writer.newLine();
+            for (TimerStrategy strategy : strategies) {
+                writer.write(String.format("%s|%s|%s|%s|%d|%s",
+                        escape(strategy.getName()),
+                        escape(strategy.getDescription()),
+                        formatDuration(strategy.getTotalWorkMillis()),
+                        formatDuration(strategy.getTotalBreakMillis()),
+                        strategy.getCycleCount(),
+                        formatDuration(strategy.getTotalLongBreakMillis())));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving strategies: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load strategy definitions from the file, skipping malformed lines
+     */
+    public List<ImmutableTimerStrategy> loadStrategies() {
+        List<ImmutableTimerStrategy> strategies = new ArrayList<>();
+        File file = new File(filePath);
+
+        if (!file.exists()) {
+            return strategies;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = split(line).toArray(new String[0]);
+                if (parts.length < 4) {
+                    System.err.println("Skipping invalid strategy definition: " + line);
+                    continue;
+                }
+                try {
+                    long workMillis = parseDuration(parts[2]);
+                    long breakMillis = parseDuration(parts[3]);
+                    int cycles = parts.length >= 5 ? Integer.parseInt(parts[4].trim()) : 1;
+                    long longBreakMillis = parts.length >= 6 ? parseDuration(parts[5]) : 0;
+                    if (workMillis <= 0 || workMillis > PhaseSchedule.MAX_PHASE_MILLIS
+                            || breakMillis < 0 || breakMillis > PhaseSchedule.MAX_PHASE_MILLIS
+                            || cycles <= 0 || cycles > PhaseSchedule.MAX_CYCLES
+                            || longBreakMillis < 0 || longBreakMillis > PhaseSchedule.MAX_PHASE_MILLIS) {
+                        throw new NumberFormatException("durations out of range");
+                    }
+                    strategies.add(ImmutableTimerStrategy.ofMillis(parts[0], parts[1],
+                            workMillis, breakMillis, cycles, longBreakMillis));
+                } catch (RuntimeException e) {
+                    // One bad line must not stop the rest loading, at startup or on reload
+                    System.err.println("Skipping invalid strategy definition: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading strategies: " + e.getMessage());
+        }
+
+        return strategies;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '#':
+                    // A line starting with # would be read back as a comment
+                    escaped.append(i == 0 ? "\\#" : "#");
+                    break;
+                case '|':
+                case '\\':
+                    escaped.append('\\').append(c);
+                    break;
+                case '\n':
+                    escaped.append("\\n");
+                    break;
+                case '\r':
+                    escaped.append("\\r");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    // Split a line at unescaped separators, undoing the escapes
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '|') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                field.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Seconds by default, milliseconds with an "ms" suffix
+    private static long parseDuration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Long.parseLong(trimmed.substring(0, trimmed.length() - 2).trim());
+        }
+        return Long.parseLong(trimmed) * 1000;
+    }
+
+    private static String formatDuration(long millis) {
+        return millis % 1000 == 0 ? Long.toString(millis / 1000) : millis + "ms";
+    }
+}
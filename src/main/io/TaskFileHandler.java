@@ -1,11 +1,14 @@
 package main.io;
 
+import main.metrics.MetricsRegistry;
 import main.model.Task;
 import main.model.TaskStatus;
+import main.timer.LatencyHistogram;
 
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Handles saving and loading tasks to/from a file
@@ -13,6 +16,11 @@ import java.util.List;
  */
 public class TaskFileHandler {
     private static final String DEFAULT_TASKS_PATH = "src/main/resources/tasks.txt";
+    // Shared by all handlers; exported as focustrack:type=Storage
+    private static final LongAdder SAVE_FAILURES = MetricsRegistry.getInstance().counter("Storage", "SaveFailures");
+    private static final LongAdder BYTES_WRITTEN = MetricsRegistry.getInstance().counter("Storage", "BytesWritten");
+    private static final LatencyHistogram SAVE_LATENCY = MetricsRegistry.getInstance().histogram("Storage", "Save");
+    private static final LatencyHistogram LOAD_LATENCY = MetricsRegistry.getInstance().histogram("Storage", "Load");
     private String filePath;
     
     public TaskFileHandler() {
@@ -27,28 +35,47 @@ public class TaskFileHandler {
     }
     
     /**
-     * Save a list of tasks to the file
+     * Save a list of tasks to the file, reporting errors on the console
      */
     public void saveTasks(List<Task> tasks) {
+        try {
+            writeTasks(tasks);
+        } catch (IOException e) {
+            System.err.println("Error saving tasks: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Save a list of tasks to the file
+     *
+     * @throws IOException If the file could not be written
+     */
+    public void writeTasks(List<Task> tasks) throws IOException {
+        long start = System.nanoTime();
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
             for (Task task : tasks) {
-                writer.write(String.format("%s|%s|%s|%d",
+                writer.write(String.format("%s|%s|%s|%d|%s",
                         task.getTitle(),
                         task.getDescription(),
                         task.getStatus(),
-                        task.getCompletedPomodoros()));
+                        task.getCompletedPomodoros(),
+                        task.getId()));
                 writer.newLine();
             }
-            System.out.println("Tasks saved successfully to " + filePath);
         } catch (IOException e) {
-            System.err.println("Error saving tasks: " + e.getMessage());
+            SAVE_FAILURES.increment();
+            throw e;
         }
+        SAVE_LATENCY.record((System.nanoTime() - start) / 1000);
+        BYTES_WRITTEN.add(new File(filePath).length());
+        System.out.println("Tasks saved successfully to " + filePath);
     }
     
     /**
      * Load tasks from the file
      */
     public List<Task> loadTasks() {
+        long start = System.nanoTime();
         List<Task> tasks = new ArrayList<>();
         File file = new File(filePath);
         
@@ -66,7 +93,9 @@ public class TaskFileHandler {
                     String description = parts[1];
                     TaskStatus status = TaskStatus.valueOf(parts[2]);
                     
-                    Task task = new Task(title, description);
+                    // Older files have no task id column; a new id is assigned on the next save
+                    Task task = parts.length >= 5 ? new Task(parts[4], title, description)
+                                                  : new Task(title, description);
                     task.setStatus(status);
                     
                     // Set completed pomodoros if available
@@ -84,6 +113,7 @@ public class TaskFileHandler {
                     tasks.add(task);
                 }
             }
+            LOAD_LATENCY.record((System.nanoTime() - start) / 1000);
             System.out.println("Loaded " + tasks.size() + " tasks from " + filePath);
         } catch (IOException e) {
             System.err.println("Error loading tasks: " + e.getMessage());
@@ -0,0 +1,238 @@
+package main.io;
+
+import main.timer.PhaseSchedule;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Handles saving and loading checkpoints of in-flight timers
+ * Uses a compact binary format so tens of thousands of timers load quickly
+ */
+public class TimerCheckpointHandler {
+    private static final String DEFAULT_CHECKPOINT_PATH = "src/main/resources/timers.dat";
+    private static final int MAGIC = 0x46544350; // "FTCP"
+    private static final int VERSION = 3; // Version 1 had no session plans, 1 and 2 stored whole seconds
+    private final Path filePath;
+
+    /**
+     * Saved form of a timer strategy; written once per distinct strategy and
+     * shared by every entry that uses it
+     */
+    public static class StrategySpec {
+        public final String name;
+        public final String description;
+        public final long workMillis;
+        public final long breakMillis;
+        public final int cycleCount;
+        public final long longBreakMillis;
+
+        public StrategySpec(String name, String description, long workMillis, long breakMillis,
+                            int cycleCount, long longBreakMillis) {
+            this.name = name;
+            this.description = description;
+            this.workMillis = workMillis;
+            this.breakMillis = breakMillis;
+            this.cycleCount = cycleCount;
+            this.longBreakMillis = longBreakMillis;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StrategySpec)) return false;
+            StrategySpec other = (StrategySpec) o;
+            return workMillis == other.workMillis
+                    && breakMillis == other.breakMillis
+                    && cycleCount == other.cycleCount
+                    && longBreakMillis == other.longBreakMillis
+                    && name.equals(other.name)
+                    && description.equals(other.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, description, workMillis, breakMillis, cycleCount, longBreakMillis);
+        }
+    }
+
+    /**
+     * State of one timer at the time of the checkpoint
+     */
+    public static class Entry {
+        public final String taskId;
+        public final StrategySpec strategy;
+        public final int phaseIndex; // Position in the strategy's session plan
+        public final boolean running;
+        public final long remainingMillis;
+
+        public Entry(String taskId, StrategySpec strategy,
+                     int phaseIndex, boolean running, long remainingMillis) {
+            this.taskId = taskId;
+            this.strategy = strategy;
+            this.phaseIndex = phaseIndex;
+            this.running = running;
+            this.remainingMillis = remainingMillis;
+        }
+    }
+
+    /**
+     * A loaded checkpoint: the entries plus the wall-clock time they were saved at
+     */
+    public static class Checkpoint {
+        public final long savedAtMillis;
+        public final List<Entry> entries;
+
+        public Checkpoint(long savedAtMillis, List<Entry> entries) {
+            this.savedAtMillis = savedAtMillis;
+            this.entries = entries;
+        }
+    }
+
+    public TimerCheckpointHandler() {
+        this(DEFAULT_CHECKPOINT_PATH);
+    }
+
+    public TimerCheckpointHandler(String filePath) {
+        this.filePath = Paths.get(filePath);
+        // Ensure the directory exists
+        File parent = this.filePath.toAbsolutePath().getParent().toFile();
+        parent.mkdirs();
+    }
+
+    /**
+     * Save a checkpoint, replacing the previous one atomically so a crash
+     * mid-write never leaves a truncated file behind
+     */
+    public void saveCheckpoint(long savedAtMillis, List<Entry> entries) {
+        Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(savedAtMillis);
+
+            // Strategy table first, then entries referring to it by index
+            Map<StrategySpec, Integer> strategyIndexes = new HashMap<>();
+            List<StrategySpec> strategies = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (strategyIndexes.putIfAbsent(entry.strategy, strategies.size()) == null) {
+                    strategies.add(entry.strategy);
+                }
+            }
+            out.writeInt(strategies.size());
+            for (StrategySpec strategy : strategies) {
+                out.writeUTF(strategy.name);
+                out.writeUTF(strategy.description);
+                out.writeLong(strategy.workMillis);
+                out.writeLong(strategy.breakMillis);
+                out.writeInt(strategy.cycleCount);
+                out.writeLong(strategy.longBreakMillis);
+            }
+
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeUTF(entry.taskId);
+                out.writeInt(strategyIndexes.get(entry.strategy));
+                out.writeInt(entry.phaseIndex);
+                out.writeBoolean(entry.running);
+                out.writeLong(entry.remainingMillis);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving timer checkpoint: " + e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error saving timer checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load the last checkpoint, or null if there is none or it is unreadable
+     */
+    public Checkpoint loadCheckpoint() {
+        if (!Files.exists(filePath)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(filePath)))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version < 1 || version > VERSION) {
+                System.err.println("Ignoring unrecognized timer checkpoint " + filePath);
+                return null;
+            }
+            boolean legacy = version == 1;
+            boolean inSeconds = version < 3;
+            long savedAtMillis = in.readLong();
+
+            // Every record takes at least a byte, so no count can exceed the file size
+            long fileSize = Files.size(filePath);
+            StrategySpec[] strategies = new StrategySpec[readCount(in, fileSize)];
+            for (int i = 0; i < strategies.length; i++) {
+                String name = in.readUTF();
+                String description = in.readUTF();
+                long workMillis = readDuration(in, inSeconds);
+                long breakMillis = readDuration(in, inSeconds);
+                int cycleCount = legacy ? 1 : readCount(in, PhaseSchedule.MAX_CYCLES);
+                if (cycleCount == 0) {
+                    throw new IOException("Corrupt checkpoint: a strategy has no cycles");
+                }
+                long longBreakMillis = legacy ? 0 : readDuration(in, inSeconds);
+                strategies[i] = new StrategySpec(name, description, workMillis, breakMillis,
+                        cycleCount, longBreakMillis);
+            }
+
+            int count = readCount(in, fileSize);
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String taskId = in.readUTF();
+                StrategySpec strategy = strategies[readCount(in, strategies.length - 1)];
+                // Version 1 stored a work/break flag; single-cycle plans are [work, break]
+                int phaseIndex = legacy ? (in.readBoolean() ? 0 : 1) : in.readInt();
+                entries.add(new Entry(taskId, strategy, phaseIndex, in.readBoolean(), readDuration(in, inSeconds)));
+            }
+            return new Checkpoint(savedAtMillis, entries);
+        } catch (IOException e) {
+            System.err.println("Error loading timer checkpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read a count or index that a valid checkpoint keeps within [0, max]
+     *
+     * @throws IOException If it is out of range: the file is corrupt
+     */
+    private static int readCount(DataInputStream in, long max) throws IOException {
+        int value = in.readInt();
+        if (value < 0 || value > max) {
+            throw new IOException("Corrupt checkpoint: " + value + " is out of range");
+        }
+        return value;
+    }
+
+    /**
+     * Read a duration that a valid checkpoint keeps within [0, PhaseSchedule.MAX_PHASE_MILLIS]
+     *
+     * @throws IOException If it is out of range: the file is corrupt
+     */
+    private static long readDuration(DataInputStream in, boolean inSeconds) throws IOException {
+        long millis = inSeconds ? in.readInt() * 1000L : in.readLong();
+        if (millis < 0 || millis > PhaseSchedule.MAX_PHASE_MILLIS) {
+            throw new IOException("Corrupt checkpoint: duration " + millis + " is out of range");
+        }
+        return millis;
+    }
+}
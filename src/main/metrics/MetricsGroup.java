@@ -0,0 +1,117 @@
+package main.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One group of metrics, exported as a read-only MBean with an attribute per metric
+ */
+final class MetricsGroup implements DynamicMBean {
+    private final String name;
+    private final Map<String, Metric> metrics = new LinkedHashMap<>(); // Guarded by this
+    private MBeanInfo info; // Built on demand; guarded by this
+
+    MetricsGroup(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized void add(String metricName, Class<?> type, Supplier<Object> value) {
+        metrics.put(metricName, new Metric(type, value));
+        info = null;
+    }
+
+    /**
+     * Append "Group.Name = value" lines
+     */
+    void appendTo(StringBuilder out) {
+        Map<String, Metric> snapshot;
+        synchronized (this) {
+            snapshot = new LinkedHashMap<>(metrics);
+        }
+        for (Map.Entry<String, Metric> entry : snapshot.entrySet()) {
+            Object value = entry.getValue().value.get();
+            out.append(name).append('.').append(entry.getKey()).append(" = ")
+               .append(value instanceof Double ? String.format(Locale.ROOT, "%.1f", value) : value)
+               .append('\n');
+        }
+    }
+
+    private synchronized Metric metric(String metricName) {
+        return metrics.get(metricName);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Metric metric = metric(attribute);
+        if (metric == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return metric.value.get();
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList values = new AttributeList(attributes.length);
+        for (String attribute : attributes) {
+            Metric metric = metric(attribute);
+            if (metric != null) {
+                values.add(new Attribute(attribute, metric.value.get()));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList(); // Metrics are read-only
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public synchronized MBeanInfo getMBeanInfo() {
+        if (info == null) {
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[metrics.size()];
+            int i = 0;
+            for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().type.getName(),
+                        entry.getKey(), true, false, false);
+            }
+            info = new MBeanInfo(MetricsGroup.class.getName(), name + " metrics", attributes,
+                    null, new MBeanOperationInfo[0], null);
+        }
+        return info;
+    }
+
+    private static final class Metric {
+        final Class<?> type;
+        final Supplier<Object> value;
+
+        Metric(Class<?> type, Supplier<Object> value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
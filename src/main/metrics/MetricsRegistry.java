@@ -0,0 +1,195 @@
+package main.metrics;
+
+import main.timer.LatencyHistogram;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Counters, gauges and latency histograms of the application, exported as JMX MBeans
+ * Metrics are kept in groups, each exported as one MBean named
+ * focustrack:type=&lt;group&gt; whose attributes are the group's metrics, so
+ * they can be watched in JConsole or VisualVM. Counters are LongAdders and
+ * histograms are LatencyHistograms, cheap enough to update anywhere. Gauges
+ * and rates are computed only when read, so code whose state is already
+ * counted somewhere (the tick path, the task list) pays nothing until someone
+ * looks.
+ * <p>
+ * Starting the platform MBean server loads hundreds of classes, so it is done
+ * on a background thread a few seconds after the first metric is registered
+ * (-Dfocustrack.jmx.delayMillis), not during startup. -Dfocustrack.jmx=false
+ * turns the export off; the metrics are still counted and can be shown with
+ * appendTo().
+ */
+public class MetricsRegistry {
+    public static final String DOMAIN = "focustrack";
+    private static final boolean EXPORT = !"false".equals(System.getProperty("focustrack.jmx"));
+    private static final int EXPORT_DELAY_MILLIS = Integer.getInteger("focustrack.jmx.delayMillis", 3000);
+
+    private final Map<String, MetricsGroup> groups = new LinkedHashMap<>(); // Guarded by itself
+    private MBeanServer server; // Set once exported; guarded by groups
+
+    private MetricsRegistry() {
+        if (EXPORT) {
+            Thread exporter = new Thread(this::export, "metrics-export");
+            exporter.setDaemon(true);
+            exporter.setPriority(Thread.MIN_PRIORITY);
+            exporter.start();
+        }
+    }
+
+    // Lazy, thread-safe initialization (initialization-on-demand holder)
+    private static class Holder {
+        private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    }
+
+    public static MetricsRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Register a counter, e.g. of saves or bytes written
+     * Registering a name again replaces the metric of that name.
+     */
+    public LongAdder counter(String group, String name) {
+        LongAdder counter = new LongAdder();
+        group(group).add(name, Long.class, counter::sum);
+        return counter;
+    }
+
+    /**
+     * Register a gauge, read from the application's own state when needed
+     */
+    public void gauge(String group, String name, LongSupplier value) {
+        group(group).add(name, Long.class, value::getAsLong);
+    }
+
+    /**
+     * Register the per-second rate of a running total that is counted
+     * elsewhere, e.g. a histogram's count: each read reports the average
+     * rate since the previous read (or since registration)
+     */
+    public void rate(String group, String name, LongSupplier total) {
+        group(group).add(name, Double.class, new Rate(total));
+    }
+
+    /**
+     * Register a new histogram of latencies in microseconds
+     */
+    public LatencyHistogram histogram(String group, String name) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram(group, name, () -> histogram);
+        return histogram;
+    }
+
+    /**
+     * Register a histogram of latencies in microseconds kept elsewhere; the
+     * supplier may return null while there is none (reads then report zeros).
+     * Exported as the attributes &lt;name&gt;Count and &lt;name&gt;Micros
+     * followed by Mean, P50, P99, P999 and Max.
+     */
+    public void histogram(String group, String name, Supplier<LatencyHistogram> histogram) {
+        MetricsGroup metrics = group(group);
+        metrics.add(name + "Count", Long.class, () -> read(histogram, LatencyHistogram::getCount));
+        metrics.add(name + "MicrosMean", Double.class, () -> {
+            LatencyHistogram current = histogram.get();
+            return current != null ? current.getMean() : 0.0;
+        });
+        metrics.add(name + "MicrosP50", Long.class, () -> read(histogram, h -> h.getValueAtPercentile(50)));
+        metrics.add(name + "MicrosP99", Long.class, () -> read(histogram, h -> h.getValueAtPercentile(99)));
+        metrics.add(name + "MicrosP999", Long.class, () -> read(histogram, h -> h.getValueAtPercentile(99.9)));
+        metrics.add(name + "MicrosMax", Long.class, () -> read(histogram, LatencyHistogram::getMax));
+    }
+
+    private static long read(Supplier<LatencyHistogram> histogram, ToLongFunction<LatencyHistogram> value) {
+        LatencyHistogram current = histogram.get();
+        return current != null ? value.applyAsLong(current) : 0;
+    }
+
+    /**
+     * Append every metric as "Group.Name = value" lines, e.g. for a console command
+     */
+    public void appendTo(StringBuilder out) {
+        MetricsGroup[] snapshot;
+        synchronized (groups) {
+            snapshot = groups.values().toArray(new MetricsGroup[0]);
+        }
+        for (MetricsGroup group : snapshot) {
+            group.appendTo(out);
+        }
+    }
+
+    private MetricsGroup group(String name) {
+        synchronized (groups) {
+            MetricsGroup group = groups.get(name);
+            if (group == null) {
+                group = new MetricsGroup(name);
+                groups.put(name, group);
+                if (server != null) {
+                    register(server, group);
+                }
+            }
+            return group;
+        }
+    }
+
+    // Runs on the metrics-export thread
+    private void export() {
+        try {
+            Thread.sleep(EXPORT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            return;
+        }
+        MBeanServer platform = ManagementFactory.getPlatformMBeanServer();
+        synchronized (groups) {
+            server = platform;
+            for (MetricsGroup group : groups.values()) {
+                register(platform, group);
+            }
+        }
+    }
+
+    private static void register(MBeanServer server, MetricsGroup group) {
+        try {
+            server.registerMBean(group, new ObjectName(DOMAIN, "type", group.getName()));
+        } catch (JMException e) {
+            System.err.println("Could not export " + group.getName() + " metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Per-second rate of a total since the previous read
+     */
+    private static final class Rate implements Supplier<Object> {
+        private final LongSupplier total;
+        private long lastTotal;
+        private long lastNanos;
+
+        Rate(LongSupplier total) {
+            this.total = total;
+            this.lastTotal = total.getAsLong();
+            this.lastNanos = System.nanoTime();
+        }
+
+        @Override
+        public synchronized Object get() {
+            long now = System.nanoTime();
+            long current = total.getAsLong();
+            // A reset total starts over rather than reporting a negative rate
+            long delta = Math.max(0, current - lastTotal);
+            long elapsedNanos = now - lastNanos;
+            lastTotal = current;
+            lastNanos = now;
+            return elapsedNanos > 0 ? delta * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0.0;
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package main.model;
 
+import java.util.UUID;
+
 public class Task {
+    private final String id; // Stable identifier, used to match saved timers to tasks
     private String title;
     private String description;
     private TaskStatus status;
     private int completedPomodoros; // Number of completed pomodoro cycles
     
     public Task(String title, String description) {
+        this(UUID.randomUUID().toString(), title, description);
+    }
+    
+    public Task(String id, String title, String description) {
+        this.id = id;
         this.title = title;
         this.description = description;
         this.status = TaskStatus.PENDING;
@@ -14,6 +22,10 @@ public class Task {
     }
 
     // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
     public String getTitle() {
         return title;
     }
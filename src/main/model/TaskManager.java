@@ -1,12 +1,18 @@
 package main.model;
 
 import main.io.TaskFileHandler;
+import main.metrics.MetricsRegistry;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class TaskManager {
     private static TaskManager instance = null;
     private List<Task> tasks;
+    private final Map<String, Task> tasksById = new HashMap<>(); // For lookups by id, e.g. from the daemon
     private TaskFileHandler fileHandler;
     private boolean autoSave;
 
@@ -14,10 +20,21 @@ public class TaskManager {
         fileHandler = new TaskFileHandler();
         autoSave = true;
         loadTasks();
+        registerMetrics();
     }
 
-    // Singleton access method
-    public static TaskManager getInstance() {
+    // Counted only when read, so changing tasks costs nothing extra
+    private void registerMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("Tasks", "Total", () -> countTasks(null));
+        for (TaskStatus status : TaskStatus.values()) {
+            String name = status.name().charAt(0) + status.name().substring(1).toLowerCase(Locale.ROOT);
+            metrics.gauge("Tasks", name, () -> countTasks(status));
+        }
+    }
+
+    // Singleton access method; the desktop UI first calls it from a background thread
+    public static synchronized TaskManager getInstance() {
         if (instance == null) {
             instance = new TaskManager();
         }
@@ -29,6 +46,10 @@ public class TaskManager {
      */
     public void loadTasks() {
         tasks = fileHandler.loadTasks();
+        tasksById.clear();
+        for (Task task : tasks) {
+            tasksById.put(task.getId(), task);
+        }
     }
     
     /**
@@ -40,6 +61,15 @@ public class TaskManager {
         }
     }
     
+    /**
+     * Save a copy of the task list taken earlier, e.g. from a background thread
+     *
+     * @throws IOException If the file could not be written
+     */
+    public void saveTasks(List<Task> snapshot) throws IOException {
+        fileHandler.writeTasks(snapshot);
+    }
+    
     /**
      * Enable or disable auto-save
      */
@@ -57,6 +87,7 @@ public class TaskManager {
     // Add a new task
     public void addTask(Task task) {
         tasks.add(task);
+        tasksById.put(task.getId(), task);
         if (autoSave) saveTasks();
     }
 
@@ -73,11 +104,26 @@ public class TaskManager {
     // Delete task by index
     public void deleteTask(int index) {
         if (index >= 0 && index < tasks.size()) {
-            tasks.remove(index);
+            tasksById.remove(tasks.remove(index).getId());
             if (autoSave) saveTasks();
         }
     }
 
+    // Delete a task
+    public boolean deleteTask(Task task) {
+        if (!tasks.remove(task)) {
+            return false;
+        }
+        tasksById.remove(task.getId());
+        if (autoSave) saveTasks();
+        return true;
+    }
+
+    // Find a task by its id, or null if there is none
+    public Task getTask(String id) {
+        return tasksById.get(id);
+    }
+
     // Mark a task as completed
     public void completeTask(int index) {
         if (index >= 0 && index < tasks.size()) {
@@ -91,6 +137,23 @@ public class TaskManager {
         return tasks;
     }
 
+    /**
+     * Number of tasks with a status, or of all tasks for null
+     * Safe to call from any thread, e.g. for metrics: it counts a copy of the
+     * list, so a concurrent change gives a slightly stale count rather than
+     * an exception.
+     */
+    public int countTasks(TaskStatus status) {
+        int count = 0;
+        for (Object task : tasks.toArray()) {
+            // Null for a slot that a concurrent add hasn't filled in yet
+            if (task != null && (status == null || ((Task) task).getStatus() == status)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     // Progress: percentage of tasks completed
     public double getCompletionRate() {
         if (tasks.isEmpty()) return 0.0;
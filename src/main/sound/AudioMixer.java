@@ -0,0 +1,232 @@
+package main.sound;
+
+import main.timer.LatencyHistogram;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Software mixer playing any number of overlapping sounds through one line
+ * Sounds are decoded once into 16-bit stereo PCM. Each play() adds a voice;
+ * a render thread sums the active voices block by block into a single,
+ * pre-opened SourceDataLine, so notifications that fire together overlap
+ * instead of cutting each other off. At most maxVoices play at once; a new
+ * voice beyond that replaces the oldest one.
+ */
+public class AudioMixer implements SoundOutput {
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int CHANNELS = 2;
+    private static final int BLOCK_FRAMES = 256; // About 6 ms per render pass
+    private static final int LINE_BLOCKS = 4;    // Line buffer, in blocks
+
+    private final SourceDataLine line;
+    private final int maxVoices;
+    private final LinkedBlockingQueue<Voice> pending = new LinkedBlockingQueue<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Thread renderThread;
+    private volatile boolean running = true;
+
+    // Render thread state
+    private final Voice[] voices;
+    private int voiceCount;
+    private final int[] mixBuffer = new int[BLOCK_FRAMES * CHANNELS];
+    private final byte[] outputBuffer = new byte[BLOCK_FRAMES * CHANNELS * 2];
+
+    /**
+     * One playing instance of a sound
+     */
+    private static class Voice {
+        final short[] samples;
+        final int gain; // 16.16 fixed point
+        final long queuedAtNanos;
+        int position; // Next sample to mix
+
+        Voice(short[] samples, int gain, long queuedAtNanos) {
+            this.samples = samples;
+            this.gain = gain;
+            this.queuedAtNanos = queuedAtNanos;
+        }
+    }
+
+    /**
+     * Open the default output line and start the render thread
+     *
+     * @param maxVoices Polyphony limit
+     * @throws LineUnavailableException If there is no usable output line
+     */
+    public AudioMixer(int maxVoices) throws LineUnavailableException {
+        this(AudioSystem.getSourceDataLine(FORMAT), maxVoices);
+    }
+
+    AudioMixer(SourceDataLine line, int maxVoices) throws LineUnavailableException {
+        if (maxVoices <= 0) {
+            throw new IllegalArgumentException("Polyphony limit must be positive");
+        }
+        this.maxVoices = maxVoices;
+        this.voices = new Voice[maxVoices];
+        this.line = line;
+        line.open(FORMAT, outputBuffer.length * LINE_BLOCKS);
+        line.start();
+
+        renderThread = new Thread(this::render, "audio-mixer");
+        renderThread.setDaemon(true);
+        renderThread.setPriority(Thread.MAX_PRIORITY);
+        renderThread.start();
+    }
+
+    /**
+     * Decode an audio stream into interleaved 16-bit stereo samples at the
+     * mixer's sample rate
+     */
+    public static short[] decode(AudioInputStream source) throws IOException {
+        AudioFormat sourceFormat = source.getFormat();
+        int channels = sourceFormat.getChannels();
+        float rate = sourceFormat.getSampleRate();
+        // Let Java Sound handle encoding and byte order; channels and rate are done here
+        AudioFormat pcmFormat = new AudioFormat(rate, 16, channels, true, false);
+        byte[] bytes;
+        try (AudioInputStream pcm = AudioSystem.getAudioInputStream(pcmFormat, source)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = pcm.read(chunk)) > 0) {
+                out.write(chunk, 0, read);
+            }
+            bytes = out.toByteArray();
+        }
+
+        int sourceFrames = bytes.length / (2 * channels);
+        int frames = rate == FORMAT.getSampleRate() || rate <= 0
+                ? sourceFrames
+                : (int) ((long) sourceFrames * (long) FORMAT.getSampleRate() / (long) rate);
+        double step = frames == sourceFrames ? 1.0 : (double) sourceFrames / frames;
+        short[] samples = new short[frames * CHANNELS];
+        for (int frame = 0; frame < frames; frame++) {
+            // Nearest source frame; notification sounds don't need better resampling
+            int sourceFrame = Math.min(sourceFrames - 1, (int) (frame * step));
+            int offset = sourceFrame * channels * 2;
+            short left = (short) ((bytes[offset] & 0xFF) | (bytes[offset + 1] << 8));
+            short right = channels > 1
+                    ? (short) ((bytes[offset + 2] & 0xFF) | (bytes[offset + 3] << 8))
+                    : left;
+            samples[frame * CHANNELS] = left;
+            samples[frame * CHANNELS + 1] = right;
+        }
+        return samples;
+    }
+
+    /**
+     * Start playing a decoded sound; returns immediately
+     *
+     * @param samples Samples from decode()
+     * @param volume Linear volume from 0.0 to 1.0
+     */
+    @Override
+    public void play(short[] samples, float volume) {
+        if (!running || samples.length == 0 || volume <= 0f) {
+            return;
+        }
+        int gain = Math.round(Math.min(volume, 1f) * 65536f);
+        pending.add(new Voice(samples, gain, System.nanoTime()));
+    }
+
+    /**
+     * Time from play() until the sound reaches the speaker (queueing plus the
+     * line's buffer), in microseconds
+     */
+    @Override
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public boolean isAudible() {
+        return true;
+    }
+
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    /**
+     * Stop the render thread and close the line
+     */
+    @Override
+    public void close() {
+        running = false;
+        renderThread.interrupt();
+        try {
+            renderThread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        line.stop();
+        line.close();
+    }
+
+    private void render() {
+        try {
+            while (running) {
+                if (voiceCount == 0) {
+                    // Nothing playing: sleep until the next sound instead of writing silence
+                    addVoice(pending.take());
+                }
+                Voice next;
+                while ((next = pending.poll()) != null) {
+                    addVoice(next);
+                }
+                mixBlock();
+                line.write(outputBuffer, 0, outputBuffer.length);
+            }
+        } catch (InterruptedException e) {
+            // Closing
+        }
+    }
+
+    private void addVoice(Voice voice) {
+        if (voiceCount == maxVoices) {
+            // Over the polyphony limit: drop the oldest voice
+            System.arraycopy(voices, 1, voices, 0, voiceCount - 1);
+            voiceCount--;
+        }
+        voices[voiceCount++] = voice;
+
+        // Samples already in the line play before this voice is heard
+        int bufferedFrames = (line.getBufferSize() - line.available()) / FORMAT.getFrameSize();
+        long bufferedMicros = bufferedFrames * 1_000_000L / (long) FORMAT.getSampleRate();
+        latency.record((System.nanoTime() - voice.queuedAtNanos) / 1000 + bufferedMicros);
+    }
+
+    private void mixBlock() {
+        Arrays.fill(mixBuffer, 0);
+        int live = 0;
+        for (int v = 0; v < voiceCount; v++) {
+            Voice voice = voices[v];
+            int count = Math.min(mixBuffer.length, voice.samples.length - voice.position);
+            for (int i = 0; i < count; i++) {
+                mixBuffer[i] += (voice.samples[voice.position + i] * voice.gain) >> 16;
+            }
+            voice.position += count;
+            if (voice.position < voice.samples.length) {
+                voices[live++] = voice; // Keep playing voices in start order
+            }
+        }
+        for (int v = live; v < voiceCount; v++) {
+            voices[v] = null;
+        }
+        voiceCount = live;
+
+        for (int i = 0; i < mixBuffer.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+            outputBuffer[i * 2] = (byte) sample;
+            outputBuffer[i * 2 + 1] = (byte) (sample >> 8);
+        }
+    }
+}
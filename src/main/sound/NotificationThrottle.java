@@ -0,0 +1,90 @@
+package main.sound;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free storm control for sound notifications
+ * Per sound type, a notification is suppressed if the same type was emitted
+ * within the coalescing window (many timers finishing on the same tick), or
+ * if the type's token bucket is empty (a steady stream of finishes). The
+ * bucket is implemented as a virtual scheduling time (GCRA), so both checks
+ * are single compare-and-set operations and callers never block.
+ */
+class NotificationThrottle {
+    private final long coalesceNanos;
+    private final long emissionIntervalNanos; // One token is refilled per interval
+    private final long burstToleranceNanos;   // (burst - 1) intervals
+    private final AtomicLongArray lastEmitted;  // Per type, nanoTime of the last emission
+    private final AtomicLongArray theoreticalArrival; // Per type, GCRA state
+    private final LongAdder[] emitted;
+    private final LongAdder[] coalesced;
+    private final LongAdder[] rateLimited;
+
+    /**
+     * @param types Number of notification types
+     * @param coalesceMillis Window in which repeats of one type collapse into one
+     * @param burst Notifications of one type allowed back to back
+     * @param refillMillis Time to earn back one notification
+     */
+    NotificationThrottle(int types, long coalesceMillis, int burst, long refillMillis) {
+        coalesceNanos = coalesceMillis * 1_000_000L;
+        emissionIntervalNanos = refillMillis * 1_000_000L;
+        burstToleranceNanos = (burst - 1) * emissionIntervalNanos;
+        lastEmitted = new AtomicLongArray(types);
+        theoreticalArrival = new AtomicLongArray(types);
+        emitted = newCounters(types);
+        coalesced = newCounters(types);
+        rateLimited = newCounters(types);
+        long start = System.nanoTime() - Math.max(coalesceNanos, emissionIntervalNanos);
+        for (int i = 0; i < types; i++) {
+            lastEmitted.set(i, start);
+            theoreticalArrival.set(i, start);
+        }
+    }
+
+    private static LongAdder[] newCounters(int types) {
+        LongAdder[] counters = new LongAdder[types];
+        for (int i = 0; i < types; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Decide whether a notification of this type should play now
+     */
+    boolean tryEmit(int type, long nowNanos) {
+        // Collapse repeats within the window; only one caller wins the slot
+        long last = lastEmitted.get(type);
+        if (nowNanos - last < coalesceNanos || !lastEmitted.compareAndSet(type, last, nowNanos)) {
+            coalesced[type].increment();
+            return false;
+        }
+
+        while (true) {
+            long arrival = theoreticalArrival.get(type);
+            if (arrival - nowNanos > burstToleranceNanos) {
+                rateLimited[type].increment();
+                return false;
+            }
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            if (theoreticalArrival.compareAndSet(type, arrival, next)) {
+                emitted[type].increment();
+                return true;
+            }
+        }
+    }
+
+    long getEmitted(int type) {
+        return emitted[type].sum();
+    }
+
+    long getCoalesced(int type) {
+        return coalesced[type].sum();
+    }
+
+    long getRateLimited(int type) {
+        return rateLimited[type].sum();
+    }
+}
@@ -0,0 +1,31 @@
+package main.sound;
+
+import main.timer.LatencyHistogram;
+
+/**
+ * Output used when the machine has no usable audio line; drops every sound
+ */
+final class NullSoundOutput implements SoundOutput {
+    static final NullSoundOutput INSTANCE = new NullSoundOutput();
+
+    private NullSoundOutput() {
+    }
+
+    @Override
+    public void play(short[] samples, float volume) {
+    }
+
+    @Override
+    public boolean isAudible() {
+        return false;
+    }
+
+    @Override
+    public LatencyHistogram getLatency() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+}
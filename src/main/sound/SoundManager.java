@@ -1,64 +1,137 @@
 package main.sound;
 
+import main.metrics.MetricsRegistry;
+import main.timer.LatencyHistogram;
+
 import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Handles sound notifications for the application
+ * Nothing is opened or decoded when the instance is created: the audio line
+ * is opened and the sounds are decoded on a background thread, either when
+ * prefetch() is called once the UI is up or on the first playSound(). Without
+ * a usable audio line, sounds are silently dropped.
  * Follows the Singleton pattern to ensure only one instance exists
  */
 public class SoundManager {
-    private static SoundManager instance;
-    private boolean soundEnabled = true;
-    private float volume = 1.0f;  // Volume level (0.0 to 1.0)
+    private volatile boolean soundEnabled = true;
+    private volatile float volume = 1.0f;  // Volume level (0.0 to 1.0)
+    private static final int MAX_VOICES = 8; // Overlapping notifications played at once
+    // Storm control: repeats of one sound within the window play once, and each
+    // sound may then play at most BURST times back to back, one more per REFILL
+    private static final long COALESCE_MILLIS = 200;
+    private static final int BURST = 3;
+    private static final long REFILL_MILLIS = 1000;
     
     // Define sound types
     public enum SoundType {
-        WORK_COMPLETE,
-        BREAK_COMPLETE,
-        TIMER_COMPLETE,
-        ERROR
+        WORK_COMPLETE("/sounds/work_complete.wav"),
+        BREAK_COMPLETE("/sounds/break_complete.wav"),
+        TIMER_COMPLETE("/sounds/timer_complete.wav"),
+        ERROR("/sounds/error.wav");
+        
+        private final String resourcePath;
+        
+        SoundType(String resourcePath) {
+            this.resourcePath = resourcePath;
+        }
     }
     
-    // Map to store sound clips
-    private Map<SoundType, Clip> soundClips;
+    // Sounds decoded once into PCM, played through one shared output.
+    // Both are written only by the loader thread.
+    private final Map<SoundType, short[]> sounds = new ConcurrentHashMap<>();
+    private volatile SoundOutput output; // null until opened
+    private final ExecutorService loader;
+    private volatile boolean closed;
+    private final NotificationThrottle throttle =
+            new NotificationThrottle(SoundType.values().length, COALESCE_MILLIS, BURST, REFILL_MILLIS);
+    private final LongAdder failed = new LongAdder();
     
     private SoundManager() {
-        soundClips = new HashMap<>();
-        initializeSounds();
+        loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sound-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("Sound", "Played", this::getEmittedCount);
+        metrics.gauge("Sound", "Suppressed", this::getSuppressedCount);
+        metrics.gauge("Sound", "Failed", failed::sum);
+        metrics.histogram("Sound", "PlaybackLatency", this::getPlaybackLatency);
+    }
+    
+    // Lazy, thread-safe initialization (initialization-on-demand holder)
+    private static class Holder {
+        private static final SoundManager INSTANCE = new SoundManager();
     }
     
     public static SoundManager getInstance() {
-        if (instance == null) {
-            instance = new SoundManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     /**
-     * Initialize sound clips
+     * Open the audio output and decode every sound in the background, so the
+     * first notification plays without delay. Call once the UI is visible.
      */
-    private void initializeSounds() {
+    public void prefetch() {
+        runOnLoader(() -> {
+            SoundOutput out = openOutput();
+            for (SoundType type : SoundType.values()) {
+                loadIfAbsent(out, type);
+            }
+        });
+    }
+    
+    // Loader thread only
+    private SoundOutput openOutput() {
+        if (output == null) {
+            try {
+                output = new AudioMixer(MAX_VOICES);
+            } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+                System.err.println("No audio output available, sounds are disabled: " + e.getMessage());
+                output = NullSoundOutput.INSTANCE;
+            }
+        }
+        return output;
+    }
+    
+    // Loader thread only
+    private short[] loadIfAbsent(SoundOutput out, SoundType type) {
+        short[] samples = sounds.get(type);
+        if (samples == null && out.isAudible()) {
+            samples = loadSound(type.resourcePath);
+            // An empty buffer marks a sound that failed to load, so it isn't retried
+            sounds.put(type, samples != null ? samples : new short[0]);
+        }
+        return samples;
+    }
+    
+    private void runOnLoader(Runnable task) {
+        if (closed) {
+            return;
+        }
         try {
-            // Load sounds from resources
-            loadSound(SoundType.WORK_COMPLETE, "/sounds/work_complete.wav");
-            loadSound(SoundType.BREAK_COMPLETE, "/sounds/break_complete.wav");
-            loadSound(SoundType.TIMER_COMPLETE, "/sounds/timer_complete.wav");
-            loadSound(SoundType.ERROR, "/sounds/error.wav");
-        } catch (Exception e) {
-            System.err.println("Error loading sounds: " + e.getMessage());
-            // Continue without sounds if they can't be loaded
+            loader.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Cleaned up concurrently
         }
     }
     
     /**
-     * Load a sound clip from a resource file
+     * Decode a sound from a resource file into memory
      */
-    private void loadSound(SoundType type, String resourcePath) {
+    private short[] loadSound(String resourcePath) {
         try {
             InputStream soundStream = getClass().getResourceAsStream(resourcePath);
             
@@ -67,57 +140,110 @@ public class SoundManager {
                 String fallbackPath = "src/main/resources" + resourcePath;
                 File soundFile = new File(fallbackPath);
                 if (soundFile.exists()) {
-                    AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundFile);
-                    Clip clip = AudioSystem.getClip();
-                    clip.open(audioStream);
-                    soundClips.put(type, clip);
-                } else {
-                    System.err.println("Could not find sound file: " + resourcePath);
+                    try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundFile)) {
+                        return AudioMixer.decode(audioStream);
+                    }
                 }
-                return;
+                System.err.println("Could not find sound file: " + resourcePath);
+                return null;
             }
             
             // Load from resource stream
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundStream);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioStream);
-            soundClips.put(type, clip);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+            try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(new BufferedInputStream(soundStream))) {
+                return AudioMixer.decode(audioStream);
+            }
+        } catch (UnsupportedAudioFileException | IOException e) {
             System.err.println("Error loading sound " + resourcePath + ": " + e.getMessage());
+            return null;
         }
     }
     
     /**
      * Play a sound notification
+     * Safe to call from any thread and never blocks the caller
      * 
      * @param type The type of sound to play
      */
     public void playSound(SoundType type) {
-        if (!soundEnabled || !soundClips.containsKey(type)) {
+        if (!soundEnabled || closed) {
+            return;
+        }
+        // Many timers finishing together would otherwise play the same sound hundreds of times
+        if (!throttle.tryEmit(type.ordinal(), System.nanoTime())) {
             return;
         }
         
-        try {
-            Clip clip = soundClips.get(type);
-            if (clip != null) {
-                // Reset clip to start
-                clip.stop();
-                clip.setFramePosition(0);
-                
-                // Set volume
-                if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                    FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                    // Convert linear volume (0.0 to 1.0) to dB scale
-                    float dB = 20f * (float) Math.log10(volume);
-                    gainControl.setValue(dB);
-                }
-                
-                // Play the sound
-                clip.start();
+        SoundOutput out = output;
+        short[] samples = sounds.get(type);
+        float playVolume = volume;
+        if (out != null && samples != null) {
+            if (samples.length == 0) {
+                failed.increment(); // The sound could not be loaded
+                return;
             }
-        } catch (Exception e) {
-            System.err.println("Error playing sound: " + e.getMessage());
+            // Mixed with any sounds already playing instead of restarting them
+            out.play(samples, playVolume);
+            return;
         }
+        
+        // Not loaded yet: open and decode on the loader thread, never on the caller's
+        runOnLoader(() -> {
+            SoundOutput opened = openOutput();
+            short[] loaded = loadIfAbsent(opened, type);
+            if (loaded != null && loaded.length > 0) {
+                opened.play(loaded, playVolume);
+            } else {
+                failed.increment(); // No audio output, or the sound could not be loaded
+            }
+        });
+    }
+    
+    /**
+     * Time from playSound() until the sound is audible, in microseconds, or
+     * null without audio output
+     */
+    public LatencyHistogram getPlaybackLatency() {
+        SoundOutput out = output;
+        return out != null ? out.getLatency() : null;
+    }
+    
+    /**
+     * Number of notifications of this type that were played
+     */
+    public long getEmittedCount(SoundType type) {
+        return throttle.getEmitted(type.ordinal());
+    }
+    
+    /**
+     * Number of notifications of this type dropped by storm control
+     * (coalesced with an identical one, or over the rate limit)
+     */
+    public long getSuppressedCount(SoundType type) {
+        return throttle.getCoalesced(type.ordinal()) + throttle.getRateLimited(type.ordinal());
+    }
+    
+    public long getEmittedCount() {
+        long total = 0;
+        for (SoundType type : SoundType.values()) {
+            total += getEmittedCount(type);
+        }
+        return total;
+    }
+    
+    public long getSuppressedCount() {
+        long total = 0;
+        for (SoundType type : SoundType.values()) {
+            total += getSuppressedCount(type);
+        }
+        return total;
+    }
+    
+    /**
+     * Number of notifications that were played but not heard: there was no
+     * audio output, or the sound could not be loaded
+     */
+    public long getFailedCount() {
+        return failed.sum();
     }
     
     /**
@@ -154,9 +280,17 @@ public class SoundManager {
      * Clean up resources
      */
     public void cleanup() {
-        for (Clip clip : soundClips.values()) {
-            clip.close();
+        closed = true;
+        loader.shutdownNow();
+        try {
+            loader.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        SoundOutput out = output;
+        if (out != null) {
+            out.close();
         }
-        soundClips.clear();
+        sounds.clear();
     }
 }
\ No newline at end of file
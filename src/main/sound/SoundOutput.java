@@ -0,0 +1,25 @@
+package main.sound;
+
+import main.timer.LatencyHistogram;
+
+/**
+ * Destination for decoded notification sounds
+ */
+interface SoundOutput {
+    /**
+     * Start playing decoded samples; must return immediately
+     */
+    void play(short[] samples, float volume);
+
+    /**
+     * Whether sounds are actually audible, i.e. worth decoding
+     */
+    boolean isAudible();
+
+    /**
+     * Time from play() until the sound is audible, in microseconds, or null
+     */
+    LatencyHistogram getLatency();
+
+    void close();
+}
@@ -0,0 +1,165 @@
+package main.timer;
+
+import java.util.Objects;
+
+/**
+ * Immutable, value-equal timer strategy
+ * Durations and the phase schedule are computed once at construction.
+ * Canonical instances are handed out by TimerStrategyRegistry, so equal
+ * strategies can also be compared and grouped by identity.
+ */
+public final class ImmutableTimerStrategy implements TimerStrategy {
+    private final String name;
+    private final String description;
+    private final long totalWorkMillis;
+    private final long totalBreakMillis;
+    private final int cycleCount;
+    private final long totalLongBreakMillis;
+    private final PhaseSchedule schedule;
+    private final int hash;
+
+    public ImmutableTimerStrategy(String name, String description,
+                                  int totalWorkSeconds, int totalBreakSeconds,
+                                  int cycleCount, int totalLongBreakSeconds) {
+        this(name, description, totalWorkSeconds * 1000L, totalBreakSeconds * 1000L,
+                cycleCount, totalLongBreakSeconds * 1000L);
+    }
+
+    private ImmutableTimerStrategy(String name, String description,
+                                   long totalWorkMillis, long totalBreakMillis,
+                                   int cycleCount, long totalLongBreakMillis) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.description = description != null ? description : "";
+        this.totalWorkMillis = totalWorkMillis;
+        this.totalBreakMillis = totalBreakMillis;
+        this.cycleCount = cycleCount;
+        this.totalLongBreakMillis = totalLongBreakMillis;
+        this.schedule = PhaseSchedule.compile(this);
+        this.hash = Objects.hash(name, this.description, totalWorkMillis, totalBreakMillis,
+                cycleCount, totalLongBreakMillis);
+    }
+
+    /**
+     * Create a strategy with millisecond-resolution durations
+     */
+    public static ImmutableTimerStrategy ofMillis(String name, String description,
+                                                  long totalWorkMillis, long totalBreakMillis,
+                                                  int cycleCount, long totalLongBreakMillis) {
+        return new ImmutableTimerStrategy(name, description, totalWorkMillis, totalBreakMillis,
+                cycleCount, totalLongBreakMillis);
+    }
+
+    /**
+     * Copy the values of any strategy
+     */
+    public static ImmutableTimerStrategy copyOf(TimerStrategy strategy) {
+        return ofMillis(
+                strategy.getName(),
+                strategy.getDescription(),
+                strategy.getTotalWorkMillis(),
+                strategy.getTotalBreakMillis(),
+                strategy.getCycleCount(),
+                strategy.getTotalLongBreakMillis());
+    }
+
+    @Override
+    public int getWorkDuration() {
+        return getTotalWorkSeconds() / 60;
+    }
+
+    @Override
+    public int getWorkDurationSeconds() {
+        return getTotalWorkSeconds() % 60;
+    }
+
+    @Override
+    public int getBreakDuration() {
+        return getTotalBreakSeconds() / 60;
+    }
+
+    @Override
+    public int getBreakDurationSeconds() {
+        return getTotalBreakSeconds() % 60;
+    }
+
+    // Whole seconds, rounded down; the millisecond getters are exact
+    @Override
+    public int getTotalWorkSeconds() {
+        return (int) (totalWorkMillis / 1000);
+    }
+
+    @Override
+    public int getTotalBreakSeconds() {
+        return (int) (totalBreakMillis / 1000);
+    }
+
+    @Override
+    public int getCycleCount() {
+        return cycleCount;
+    }
+
+    @Override
+    public int getTotalLongBreakSeconds() {
+        return (int) (totalLongBreakMillis / 1000);
+    }
+
+    @Override
+    public long getTotalWorkMillis() {
+        return totalWorkMillis;
+    }
+
+    @Override
+    public long getTotalBreakMillis() {
+        return totalBreakMillis;
+    }
+
+    @Override
+    public long getTotalLongBreakMillis() {
+        return totalLongBreakMillis;
+    }
+
+    @Override
+    public PhaseSchedule getPhaseSchedule() {
+        return schedule;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ImmutableTimerStrategy)) return false;
+        ImmutableTimerStrategy other = (ImmutableTimerStrategy) o;
+        return hash == other.hash
+                && totalWorkMillis == other.totalWorkMillis
+                && totalBreakMillis == other.totalBreakMillis
+                && cycleCount == other.cycleCount
+                && totalLongBreakMillis == other.totalLongBreakMillis
+                && name.equals(other.name)
+                && description.equals(other.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableTimerStrategy{" +
+                "name='" + name + '\'' +
+                ", work=" + totalWorkMillis +
+                "ms, break=" + totalBreakMillis +
+                "ms, cycles=" + cycleCount +
+                ", longBreak=" + totalLongBreakMillis +
+                "ms}";
+    }
+}
@@ -0,0 +1,154 @@
+package main.timer;
+
+/**
+ * Immutable plan of every phase in a timer session
+ * Compiled once from a TimerStrategy: cycles of work and break, followed by
+ * an optional long break. Phase boundaries are stored as cumulative offsets
+ * from the session start, so walking the plan allocates nothing and any point
+ * in the session can be located in O(log phases).
+ */
+public final class PhaseSchedule {
+    public enum PhaseType {
+        WORK, BREAK, LONG_BREAK
+    }
+
+    /** Most cycles a session may have; files that ask for more are rejected when read */
+    public static final int MAX_CYCLES = 10000;
+    /** Longest a single phase may last, a week */
+    public static final long MAX_PHASE_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    private final long[] phaseEnds; // Milliseconds from session start at which each phase ends
+    private final PhaseType[] phaseTypes;
+    private final int cycleCount;
+    private final long tickMillis;
+
+    private PhaseSchedule(long[] phaseEnds, PhaseType[] phaseTypes, int cycleCount) {
+        this.phaseEnds = phaseEnds;
+        this.phaseTypes = phaseTypes;
+        this.cycleCount = cycleCount;
+        this.tickMillis = computeTickMillis(phaseEnds);
+    }
+
+    /**
+     * Compile the session plan described by a strategy
+     */
+    public static PhaseSchedule compile(TimerStrategy strategy) {
+        int cycles = Math.max(1, strategy.getCycleCount());
+        long workMillis = Math.max(0, strategy.getTotalWorkMillis());
+        long breakMillis = Math.max(0, strategy.getTotalBreakMillis());
+        long longBreakMillis = Math.max(0, strategy.getTotalLongBreakMillis());
+
+        int phaseCount = cycles * 2 + (longBreakMillis > 0 ? 1 : 0);
+        long[] ends = new long[phaseCount];
+        PhaseType[] types = new PhaseType[phaseCount];
+        long offset = 0;
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            offset += workMillis;
+            ends[cycle * 2] = offset;
+            types[cycle * 2] = PhaseType.WORK;
+            offset += breakMillis;
+            ends[cycle * 2 + 1] = offset;
+            types[cycle * 2 + 1] = PhaseType.BREAK;
+        }
+        if (longBreakMillis > 0) {
+            offset += longBreakMillis;
+            ends[phaseCount - 1] = offset;
+            types[phaseCount - 1] = PhaseType.LONG_BREAK;
+        }
+        return new PhaseSchedule(ends, types, cycles);
+    }
+
+    // Longest tick that still lands exactly on every phase boundary: at most a
+    // second (for the display), shorter only for sub-second durations
+    private static long computeTickMillis(long[] phaseEnds) {
+        long tick = 1000;
+        for (long end : phaseEnds) {
+            tick = gcd(tick, end);
+        }
+        return tick;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long next = a % b;
+            a = b;
+            b = next;
+        }
+        return a;
+    }
+
+    public int getPhaseCount() {
+        return phaseEnds.length;
+    }
+
+    public int getCycleCount() {
+        return cycleCount;
+    }
+
+    public long getTotalMillis() {
+        return phaseEnds[phaseEnds.length - 1];
+    }
+
+    /**
+     * Tick period that hits every phase boundary exactly (1000 ms unless a
+     * phase has a sub-second duration)
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public PhaseType getPhaseType(int phase) {
+        return phaseTypes[phase];
+    }
+
+    public boolean isWorkPhase(int phase) {
+        return phaseTypes[phase] == PhaseType.WORK;
+    }
+
+    public long getPhaseStartMillis(int phase) {
+        return phase == 0 ? 0 : phaseEnds[phase - 1];
+    }
+
+    public long getPhaseEndMillis(int phase) {
+        return phaseEnds[phase];
+    }
+
+    public long getPhaseDurationMillis(int phase) {
+        return phaseEnds[phase] - getPhaseStartMillis(phase);
+    }
+
+    /**
+     * Zero-based work-break cycle a phase belongs to (the long break counts
+     * as part of the last cycle)
+     */
+    public int getCycle(int phase) {
+        return Math.min(phase / 2, cycleCount - 1);
+    }
+
+    /**
+     * Check if completing this phase completes a work-break cycle
+     */
+    public boolean endsCycle(int phase) {
+        return phaseTypes[phase] == PhaseType.BREAK;
+    }
+
+    /**
+     * Find the phase in progress a given number of milliseconds into the session
+     *
+     * @return The phase index, or getPhaseCount() if the session is over
+     */
+    public int phaseAt(long elapsedMillis) {
+        // First phase that ends after the given offset
+        int low = 0;
+        int high = phaseEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (phaseEnds[mid] <= elapsedMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,34 @@
+package main.timer;
+
+// Pomodoro session - 4 cycles of 25 minutes work and 5 minutes break, then a 15-minute long break
+public class PomodoroSessionTimer implements TimerStrategy {
+    @Override
+    public int getWorkDuration() {
+        return 25;
+    }
+
+    @Override
+    public int getBreakDuration() {
+        return 5;
+    }
+
+    @Override
+    public int getCycleCount() {
+        return 4;
+    }
+
+    @Override
+    public int getTotalLongBreakSeconds() {
+        return 15 * 60;
+    }
+
+    @Override
+    public String getName() {
+        return "Pomodoro Session";
+    }
+
+    @Override
+    public String getDescription() {
+        return "4 rounds of 25 minutes work and a 5-minute break, then a 15-minute long break";
+    }
+}
@@ -0,0 +1,211 @@
+package main.timer;
+
+import main.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Timer engine for multi-tenant deployments
+ * Tenants (e.g. users) are partitioned by hash across a fixed number of
+ * shards. Each shard has its own scheduler thread and its own tenant map, and
+ * each tenant has its own TimerManager, so operations for different tenants
+ * never contend on shared state. Per-tenant queries touch one tenant's timers;
+ * aggregate queries fan out to all shards in parallel.
+ */
+public class ShardedTimerEngine {
+    private final Shard[] shards;
+    private final ExecutorService queryExecutor;
+
+    /**
+     * One partition of the tenants, with its own timer thread
+     */
+    private static class Shard {
+        final SystemTimerScheduler scheduler;
+        final TickBuckets tickBuckets; // Shared by the shard's tenants so their timers coalesce
+        final ConcurrentMap<String, TimerManager> tenants = new ConcurrentHashMap<>();
+
+        Shard(int index) {
+            scheduler = new SystemTimerScheduler("task-timer-shard-" + index);
+            tickBuckets = new TickBuckets(scheduler);
+        }
+
+        TimerManager managerFor(String tenantId) {
+            return tenants.computeIfAbsent(tenantId, id -> new TimerManager(scheduler, tickBuckets));
+        }
+
+        List<TaskTimer> activeTimers() {
+            List<TaskTimer> result = new ArrayList<>();
+            for (TimerManager manager : tenants.values()) {
+                manager.forEachActiveTimer(result::add);
+            }
+            return result;
+        }
+
+        int activeTimerCount() {
+            int[] count = {0};
+            for (TimerManager manager : tenants.values()) {
+                manager.forEachActiveTimer(timer -> count[0]++);
+            }
+            return count[0];
+        }
+    }
+
+    /**
+     * Create an engine with one shard per available processor
+     */
+    public ShardedTimerEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ShardedTimerEngine(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        queryExecutor = Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "timer-shard-query-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Shard a tenant's timers live on
+     */
+    public int shardOf(String tenantId) {
+        int hash = tenantId.hashCode();
+        hash ^= hash >>> 16; // Spread the high bits, as HashMap does
+        return Math.floorMod(hash, shards.length);
+    }
+
+    /**
+     * Get the timer manager for a tenant, creating it on first use. It has
+     * the full TimerManager API (bulk operations, event stream) scoped to the
+     * tenant; its timers tick on the tenant's shard.
+     */
+    public TimerManager getTenant(String tenantId) {
+        return shards[shardOf(tenantId)].managerFor(tenantId);
+    }
+
+    public TaskTimer startTimer(String tenantId, Task task, TimerStrategy strategy) {
+        return getTenant(tenantId).startTimer(task, strategy);
+    }
+
+    public void pauseTimer(String tenantId, Task task) {
+        getTenant(tenantId).pauseTimer(task);
+    }
+
+    public void resumeTimer(String tenantId, Task task) {
+        getTenant(tenantId).resumeTimer(task);
+    }
+
+    public void resetTimer(String tenantId, Task task) {
+        getTenant(tenantId).resetTimer(task);
+    }
+
+    public void cancelTimer(String tenantId, Task task) {
+        getTenant(tenantId).cancelTimer(task);
+    }
+
+    public TaskTimer getTimerForTask(String tenantId, Task task) {
+        return getTenant(tenantId).getTimerForTask(task);
+    }
+
+    /**
+     * Running timers of one tenant
+     */
+    public List<TaskTimer> getActiveTimers(String tenantId) {
+        TimerManager manager = shards[shardOf(tenantId)].tenants.get(tenantId);
+        return manager != null ? manager.getAllActiveTimers() : new ArrayList<>();
+    }
+
+    /**
+     * Cancel a tenant's timers and forget the tenant
+     */
+    public void removeTenant(String tenantId) {
+        TimerManager manager = shards[shardOf(tenantId)].tenants.remove(tenantId);
+        if (manager != null) {
+            manager.clearAllTimers();
+            manager.shutdown();
+        }
+    }
+
+    /**
+     * Running timers of every tenant, collected from all shards in parallel
+     */
+    public List<TaskTimer> getAllActiveTimers() {
+        List<TaskTimer> result = new ArrayList<>();
+        for (List<TaskTimer> shardTimers : fanOut(Shard::activeTimers)) {
+            result.addAll(shardTimers);
+        }
+        return result;
+    }
+
+    /**
+     * Number of running timers across all shards, counted in parallel
+     */
+    public int getActiveTimerCount() {
+        int total = 0;
+        for (int count : fanOut(Shard::activeTimerCount)) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int getTenantCount() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.tenants.size();
+        }
+        return total;
+    }
+
+    /**
+     * Tick latency of one shard's timer thread, in microseconds
+     */
+    public LatencyHistogram getTickLatency(int shard) {
+        return shards[shard].scheduler.getTickLatency();
+    }
+
+    // Run a query on every shard at once and collect the results in shard order
+    private <R> List<R> fanOut(Function<Shard, R> query) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), queryExecutor));
+        }
+        List<R> results = new ArrayList<>(shards.length);
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Stop every tenant's timers and the shard threads
+     */
+    public void shutdown() {
+        for (Shard shard : shards) {
+            for (TimerManager manager : shard.tenants.values()) {
+                manager.shutdown();
+            }
+            shard.scheduler.shutdown();
+        }
+        queryExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,77 @@
+package main.timer;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock scheduler shared by all timers
+ * Runs every timer on one daemon thread instead of a thread per timer.
+ * The shared instance serves the application; ShardedTimerEngine creates one
+ * per shard.
+ */
+public class SystemTimerScheduler implements TimerScheduler {
+    private final ScheduledThreadPoolExecutor executor;
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+
+    private SystemTimerScheduler() {
+        this("task-timer");
+    }
+
+    /**
+     * Create a scheduler with its own timer thread
+     */
+    public SystemTimerScheduler(String threadName) {
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Paused and cancelled timers should not linger in the queue
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    private static class Holder {
+        private static final SystemTimerScheduler INSTANCE = new SystemTimerScheduler();
+    }
+
+    public static SystemTimerScheduler getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public Handle scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        // Executions of one task never overlap, so this needs no locking
+        long[] nextDueNanos = {System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelayMillis)};
+        ScheduledFuture<?> future = executor.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            tickLatency.record((now - nextDueNanos[0]) / 1000);
+            nextDueNanos[0] += periodNanos;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Keep one failing listener from silently stopping its timer
+                System.err.println("Error in timer task: " + e.getMessage());
+            }
+        }, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    @Override
+    public LatencyHistogram getTickLatency() {
+        return tickLatency;
+    }
+
+    /**
+     * Stop the timer thread; scheduled timers stop ticking
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
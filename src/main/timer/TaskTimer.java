@@ -1,33 +1,49 @@
 package main.timer;
 
+import main.io.TimerCheckpointHandler;
 import main.model.Task;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 public class TaskTimer {
     private Task task;
     private TimerStrategy strategy;
-    private Timer timer;
-    private boolean isRunning;
-    private boolean isWorkPhase;
-    private int remainingSeconds;
-    private TimerListener listener;
+    private volatile PhaseSchedule schedule; // Compiled session plan of the current strategy
+    private final TimerScheduler scheduler;
+    private volatile TickGroup tickGroup; // Shared tick driving this timer while it runs
+    private long firstTickMillis; // Time actually waited on the group's first tick after joining
+    private boolean firstTickPending;
+    private volatile TickBuckets tickBuckets; // Shared groups to join; null for a private group per start
+    // Read without locking by the UI and console threads
+    private volatile boolean isRunning;
+    private volatile int phaseIndex;
+    private volatile boolean isWorkPhase;
+    private volatile long remainingMillis;
+    private volatile TimerListener listener;
     private boolean isConsoleMode; // Flag to control console output
+    private volatile Runnable stateChangeHook; // Lets TimerManager checkpoint on state changes
+    private volatile TimerEventPublisher eventPublisher;
 
     public TaskTimer(Task task, TimerStrategy strategy) {
+        this(task, strategy, SystemTimerScheduler.getInstance());
+    }
+
+    public TaskTimer(Task task, TimerStrategy strategy, TimerScheduler scheduler) {
         this.task = task;
         this.strategy = strategy;
+        this.scheduler = scheduler;
+        this.schedule = strategy.getPhaseSchedule();
         this.isRunning = false;
-        this.isWorkPhase = true;
-        this.remainingSeconds = strategy.getTotalWorkSeconds(); // Use the new helper method
         this.isConsoleMode = false;
+        enterPhase(0);
     }
 
     public interface TimerListener {
         void onTick(int seconds);
         void onPhaseComplete(boolean wasWorkPhase);
         void onTimerComplete();
+        
+        // Called after the break ending each work-break cycle of a session
+        default void onCycleComplete(int completedCycles) {
+        }
     }
 
     public void setListener(TimerListener listener) {
@@ -38,111 +54,277 @@ public class TaskTimer {
         this.isConsoleMode = consoleMode;
     }
 
-    public void start() {
+    void setStateChangeHook(Runnable hook) {
+        this.stateChangeHook = hook;
+    }
+
+    void setEventPublisher(TimerEventPublisher publisher) {
+        this.eventPublisher = publisher;
+    }
+
+    /**
+     * Join the manager's shared tick groups whenever this timer starts ticking
+     * again on its own (resume, reset, a strategy change)
+     */
+    void setTickBuckets(TickBuckets buckets) {
+        this.tickBuckets = buckets;
+    }
+
+    private TickGroup newGroup() {
+        TickBuckets buckets = tickBuckets;
+        return buckets != null ? buckets.groupFor(strategy) : new TickGroup(scheduler, schedule.getTickMillis());
+    }
+
+    private void notifyStateChanged() {
+        Runnable hook = stateChangeHook;
+        if (hook != null) {
+            hook.run();
+        }
+    }
+
+    // Only builds the event if some subscriber asked for this type
+    private void publish(TimerEvent.Type type, int value) {
+        TimerEventPublisher publisher = eventPublisher;
+        if (publisher != null && publisher.isRequested(type)) {
+            publisher.publish(new TimerEvent(type, this, scheduler.currentTimeMillis(), value));
+        }
+    }
+
+    public synchronized void start() {
+        start(newGroup());
+    }
+
+    /**
+     * Start ticking as a member of the given group, sharing its wake-ups
+     */
+    synchronized void start(TickGroup group) {
         if (isRunning) return;
         
+        join(group);
+        notifyStateChanged();
+        publish(getSessionElapsedMillis() == 0 ? TimerEvent.Type.STARTED : TimerEvent.Type.RESUMED, 0);
+    }
+
+    private void join(TickGroup group) {
         isRunning = true;
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (remainingSeconds > 0) {
-                    remainingSeconds--;
-                    if (listener != null) {
-                        listener.onTick(remainingSeconds);
-                    }
-                } else {
-                    // Phase complete
-                    if (listener != null) {
-                        listener.onPhaseComplete(isWorkPhase);
-                    }
-                    
-                    // Switch phases
-                    isWorkPhase = !isWorkPhase;
-                    
-                    // If work phase just ended and there's a break, start break
-                    if (!isWorkPhase) {
-                        remainingSeconds = strategy.getTotalBreakSeconds(); // Use the new helper method
-                    } else {
-                        // If break just ended, reset to work phase
-                        remainingSeconds = strategy.getTotalWorkSeconds(); // Use the new helper method
-                        if (listener != null) {
-                            listener.onTimerComplete();
-                        }
-                        // Auto-cancel after completing a full work-break cycle
-                        cancel();
-                    }
+        tickGroup = group;
+        firstTickMillis = group.add(this);
+        firstTickPending = true;
+    }
+
+    private void leaveGroup() {
+        isRunning = false;
+        if (tickGroup != null) {
+            tickGroup.remove(this);
+            tickGroup = null;
+        }
+    }
+
+    /**
+     * Called by the tick group on every shared wake-up
+     */
+    synchronized void groupTick(TickGroup group) {
+        // Ignore a wake-up from a group this timer has since left
+        if (tickGroup == group) {
+            long elapsed = firstTickPending ? firstTickMillis : group.getPeriodMillis();
+            firstTickPending = false;
+            tick(elapsed);
+        }
+    }
+
+    // Advance the countdown by one tick, moving through the schedule as phases end
+    private void tick(long elapsedMillis) {
+        // A tick may still be in flight when the timer is paused
+        if (!isRunning) return;
+
+        if (remainingMillis > 0) {
+            int shownBefore = getRemainingSeconds();
+            remainingMillis = Math.max(0, remainingMillis - elapsedMillis);
+            // Sub-second ticks only notify when the displayed second changes
+            int shown = getRemainingSeconds();
+            if (shown != shownBefore) {
+                if (listener != null) {
+                    listener.onTick(shown);
                 }
+                publish(TimerEvent.Type.TICK, shown);
             }
-        }, 1000, 1000); // Update every second
+        }
+        
+        // Complete the phase on the tick that reaches its deadline (looping
+        // over any zero-length phases)
+        while (isRunning && remainingMillis == 0) {
+            completePhase();
+        }
     }
 
-    public void pause() {
-        if (!isRunning) return;
+    private void completePhase() {
+        int completed = phaseIndex;
+        boolean wasWork = schedule.isWorkPhase(completed);
+        if (listener != null) {
+            listener.onPhaseComplete(wasWork);
+        }
+        publish(TimerEvent.Type.PHASE_COMPLETE, wasWork ? 1 : 0);
+        if (schedule.endsCycle(completed)) {
+            int completedCycles = schedule.getCycle(completed) + 1;
+            if (listener != null) {
+                listener.onCycleComplete(completedCycles);
+            }
+            publish(TimerEvent.Type.CYCLE_COMPLETE, completedCycles);
+        }
         
-        isRunning = false;
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+        if (completed + 1 < schedule.getPhaseCount()) {
+            enterPhase(completed + 1);
+            notifyStateChanged();
+        } else {
+            if (listener != null) {
+                listener.onTimerComplete();
+            }
+            publish(TimerEvent.Type.TIMER_COMPLETE, 0);
+            // Stop and rewind after completing the whole session
+            leaveGroup();
+            enterPhase(0);
+            notifyStateChanged();
         }
     }
 
-    public void resume() {
+    private void enterPhase(int phase) {
+        phaseIndex = phase;
+        isWorkPhase = schedule.isWorkPhase(phase);
+        remainingMillis = schedule.getPhaseDurationMillis(phase);
+    }
+
+    public synchronized void pause() {
+        if (!isRunning) return;
+        
+        leaveGroup();
+        notifyStateChanged();
+        publish(TimerEvent.Type.PAUSED, 0);
+    }
+
+    public synchronized void resume() {
         if (isRunning) return;
         
         start();
     }
 
-    public void cancel() {
-        pause();
-        isWorkPhase = true;
-        remainingSeconds = strategy.getTotalWorkSeconds(); 
+    public synchronized void cancel() {
+        leaveGroup();
+        enterPhase(0);
+        notifyStateChanged();
+        publish(TimerEvent.Type.CANCELLED, 0);
     }
 
     // In TaskTimer.java, add a reset method
-    public void reset() {
+    public synchronized void reset() {
         boolean wasRunning = isRunning;
         
         if (wasRunning) {
-            pause();
+            leaveGroup();
         }
         
         // Reset to the beginning of the current phase
-        if (isWorkPhase) {
-            remainingSeconds = strategy.getTotalWorkSeconds();
-        } else {
-            remainingSeconds = strategy.getTotalBreakSeconds();
-        }
+        remainingMillis = schedule.getPhaseDurationMillis(phaseIndex);
         
         if (wasRunning) {
-            resume();
+            join(newGroup());
         }
         
+        notifyStateChanged();
         if (listener != null) {
-            listener.onTick(remainingSeconds);
+            listener.onTick(getRemainingSeconds());
         }
     }
 
-    public void changeStrategy(TimerStrategy newStrategy) {
+    public synchronized void changeStrategy(TimerStrategy newStrategy) {
         boolean wasRunning = isRunning;
         
         if (wasRunning) {
-            pause();
+            leaveGroup();
         }
         
         this.strategy = newStrategy;
-        this.isWorkPhase = true;
-        this.remainingSeconds = newStrategy.getTotalWorkSeconds(); 
+        this.phaseIndex = 0; // Valid in any schedule, for unlocked readers
+        this.schedule = newStrategy.getPhaseSchedule();
+        enterPhase(0);
         
         if (wasRunning) {
-            resume();
+            join(newGroup());
         }
+        notifyStateChanged();
+    }
+
+    /**
+     * Jump to a point in the session without firing any listener events
+     *
+     * @param elapsedMillis Milliseconds since the start of the session
+     * @return false if that point is past the end of the session
+     */
+    public synchronized boolean seek(long elapsedMillis) {
+        if (elapsedMillis < 0) {
+            throw new IllegalArgumentException("Elapsed time cannot be negative");
+        }
+        int phase = schedule.phaseAt(elapsedMillis);
+        if (phase >= schedule.getPhaseCount()) {
+            return false;
+        }
+        phaseIndex = phase;
+        isWorkPhase = schedule.isWorkPhase(phase);
+        remainingMillis = schedule.getPhaseEndMillis(phase) - elapsedMillis;
+        notifyStateChanged();
+        return true;
+    }
+
+    /**
+     * Capture a consistent snapshot of this timer for checkpointing
+     */
+    synchronized TimerCheckpointHandler.Entry toCheckpointEntry() {
+        return new TimerCheckpointHandler.Entry(
+                task.getId(),
+                new TimerCheckpointHandler.StrategySpec(
+                        strategy.getName(),
+                        strategy.getDescription(),
+                        strategy.getTotalWorkMillis(),
+                        strategy.getTotalBreakMillis(),
+                        strategy.getCycleCount(),
+                        strategy.getTotalLongBreakMillis()),
+                phaseIndex,
+                isRunning,
+                remainingMillis);
+    }
+
+    /**
+     * Restore phase and remaining time from a checkpoint (timer must not be running)
+     */
+    synchronized void restoreState(int phase, long remaining) {
+        if (phase < 0 || phase >= schedule.getPhaseCount()) {
+            phase = 0;
+            remaining = schedule.getPhaseDurationMillis(0);
+        }
+        this.phaseIndex = phase;
+        this.isWorkPhase = schedule.isWorkPhase(phase);
+        this.remainingMillis = Math.max(0, Math.min(remaining, schedule.getPhaseDurationMillis(phase)));
+    }
+
+    /**
+     * Advance the countdown by time that passed while the application was not
+     * running
+     *
+     * @return false if the whole session elapsed in the meantime
+     */
+    synchronized boolean fastForward(long elapsedMillis) {
+        // Whole ticks only, so later ticks still land on phase boundaries
+        long tick = schedule.getTickMillis();
+        return seek(getSessionElapsedMillis() + elapsedMillis - elapsedMillis % tick);
     }
 
     public Task getTask() {
         return task;
     }
 
+    public TimerScheduler getScheduler() {
+        return scheduler;
+    }
+
     public TimerStrategy getStrategy() {
         return strategy;
     }
@@ -159,21 +341,73 @@ public class TaskTimer {
         return isWorkPhase;
     }
 
+    public PhaseSchedule getPhaseSchedule() {
+        return schedule;
+    }
+
+    public int getPhaseIndex() {
+        return phaseIndex;
+    }
+
+    // Length of the current phase, e.g. for progress displays
+    public synchronized long getPhaseDurationMillis() {
+        return schedule.getPhaseDurationMillis(phaseIndex);
+    }
+
+    // Rounded up, so a sub-second phase still shows as one second
+    public synchronized int getPhaseDurationSeconds() {
+        return (int) ((schedule.getPhaseDurationMillis(phaseIndex) + 999) / 1000);
+    }
+
+    // One-based number of the work-break cycle in progress
+    public synchronized int getCurrentCycle() {
+        return schedule.getCycle(phaseIndex) + 1;
+    }
+
+    // Milliseconds since the start of the session
+    public synchronized long getSessionElapsedMillis() {
+        return schedule.getPhaseEndMillis(phaseIndex) - remainingMillis;
+    }
+
+    public long getRemainingMillis() {
+        return remainingMillis;
+    }
+
+    /**
+     * Scheduler time at which the next tick is due, or -1 if not running
+     */
+    public long getNextTickMillis() {
+        TickGroup group = tickGroup;
+        return group != null ? group.getNextTickMillis() : -1;
+    }
+
+    // Rounded up, so the display reads 00:00 only once the phase is over
     public int getRemainingSeconds() {
-        return remainingSeconds;
+        return (int) ((remainingMillis + 999) / 1000);
     }
     
     public String getFormattedTime() {
-        int minutes = remainingSeconds / 60;
-        int seconds = remainingSeconds % 60;
-        return String.format("%02d:%02d", minutes, seconds);
+        return TimeFormat.clock(getRemainingSeconds());
     }
     
     public String getPhaseText() {
-        return isWorkPhase ? "Work" : "Break";
+        switch (schedule.getPhaseType(phaseIndex)) {
+            case WORK:
+                return "Work";
+            case LONG_BREAK:
+                return "Long Break";
+            default:
+                return "Break";
+        }
     }
     
     public String getStatusDisplay() {
-        return task.getTitle() + " - " + getPhaseText() + ": " + getFormattedTime();
+        return appendStatus(new StringBuilder()).toString();
+    }
+    
+    // Same as getStatusDisplay(), written into a caller's buffer without allocating
+    public StringBuilder appendStatus(StringBuilder out) {
+        out.append(task.getTitle()).append(" - ").append(getPhaseText()).append(": ");
+        return TimeFormat.appendClock(out, getRemainingSeconds());
     }
 }
\ No newline at end of file
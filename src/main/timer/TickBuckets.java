@@ -0,0 +1,55 @@
+package main.timer;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Hands out shared tick groups so timers started close together share wake-ups
+ * Timers with the same strategy started (or resumed, reset or switched to
+ * it) within the same tick period share a tick group, so they wake up
+ * together and hit their phase boundaries together; wake-ups then scale with
+ * distinct deadlines rather than with the number of timers. Each strategy
+ * keeps only its current bucket. The price is accuracy: a timer that joins
+ * partway through a tick has its phases end on the group's ticks, up to one
+ * tick after its own deadlines (never before them, see TickGroup).
+ */
+class TickBuckets {
+    private final TimerScheduler scheduler;
+    private final TimerStrategyRegistry strategyRegistry = TimerStrategyRegistry.getInstance();
+    private final Map<TimerStrategy, Bucket> buckets = new IdentityHashMap<>(); // Keyed by interned strategy
+
+    /**
+     * The tick group a strategy's timers join during one tick period
+     */
+    private static class Bucket {
+        final long period; // Index of the tick period the group was created in
+        final TickGroup group;
+
+        Bucket(long period, TickGroup group) {
+            this.period = period;
+            this.group = group;
+        }
+    }
+
+    TickBuckets(TimerScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Get the tick group for timers of this strategy starting now
+     */
+    TickGroup groupFor(TimerStrategy strategy) {
+        TimerStrategy canonical = strategyRegistry.intern(strategy);
+        long tickMillis = canonical.getPhaseSchedule().getTickMillis();
+        long period = scheduler.currentTimeMillis() / tickMillis;
+        synchronized (this) {
+            Bucket bucket = buckets.get(canonical);
+            if (bucket == null || bucket.period != period) {
+                // Earlier groups keep ticking for their members but take no new ones
+                bucket = new Bucket(period, new TickGroup(scheduler, tickMillis));
+                buckets.put(canonical, bucket);
+            }
+            return bucket.group;
+        }
+    }
+}
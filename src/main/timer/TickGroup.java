@@ -0,0 +1,87 @@
+package main.timer;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A set of running timers that share one scheduled tick
+ * A single wake-up advances every member, so a group started together costs
+ * one scheduler registration instead of one per timer. A timer that joins
+ * between ticks is only advanced by the time it actually waited on its
+ * first tick, so joining late never shortens its phase; instead, its phase
+ * ends on the first tick at or after the true deadline, up to one tick late.
+ */
+class TickGroup implements Runnable {
+    private final TimerScheduler scheduler;
+    private final long periodMillis;
+    private final Set<TaskTimer> members = new LinkedHashSet<>(); // Keeps tick order deterministic
+    private TimerScheduler.Handle handle;
+    private long nextTickMillis; // Scheduler time the next tick is due
+    private TaskTimer[] batch = new TaskTimer[0]; // Reused between ticks
+
+    /**
+     * @param periodMillis Time between ticks; every member's phase durations
+     *                     should be a multiple of it (see PhaseSchedule.getTickMillis)
+     */
+    TickGroup(TimerScheduler scheduler, long periodMillis) {
+        this.scheduler = scheduler;
+        this.periodMillis = periodMillis;
+    }
+
+    long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    synchronized long getNextTickMillis() {
+        return nextTickMillis;
+    }
+
+    /**
+     * Add a timer, scheduling the shared tick when the group becomes non-empty
+     *
+     * @return Milliseconds until the timer's first tick, at most one period
+     */
+    synchronized long add(TaskTimer timer) {
+        members.add(timer);
+        long now = scheduler.currentTimeMillis();
+        if (handle == null) {
+            nextTickMillis = now + periodMillis;
+            handle = scheduler.scheduleAtFixedRate(this, periodMillis, periodMillis);
+        }
+        return Math.max(0, Math.min(periodMillis, nextTickMillis - now));
+    }
+
+    /**
+     * Remove a timer, cancelling the shared tick once the group is empty
+     */
+    synchronized void remove(TaskTimer timer) {
+        if (members.remove(timer) && members.isEmpty() && handle != null) {
+            handle.cancel();
+            handle = null;
+        }
+    }
+
+    synchronized int size() {
+        return members.size();
+    }
+
+    @Override
+    public void run() {
+        // Tick outside the group lock: members lock themselves and may leave the group
+        TaskTimer[] current;
+        int count;
+        synchronized (this) {
+            nextTickMillis += periodMillis; // Timers joining from now on wait for the next tick
+            count = members.size();
+            if (batch.length < count) {
+                batch = new TaskTimer[count];
+            }
+            current = members.toArray(batch);
+        }
+        for (int i = 0; i < count; i++) {
+            TaskTimer timer = current[i];
+            current[i] = null; // Don't keep departed timers reachable
+            timer.groupTick(this);
+        }
+    }
+}
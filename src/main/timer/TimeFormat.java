@@ -0,0 +1,138 @@
+package main.timer;
+
+/**
+ * Allocation-free formatting of countdowns and progress bars
+ * Formatting goes through lookup tables ("00" to "99") into a caller's
+ * StringBuilder, so a display refreshing thousands of timers per second
+ * creates no garbage per timer. Where a String is needed, clock strings up to
+ * two hours and progress bars per width and fill are cached once built.
+ */
+public final class TimeFormat {
+    private static final int CACHED_CLOCK_SECONDS = 2 * 60 * 60;
+    private static final int MAX_CACHED_BAR_WIDTH = 200;
+
+    private static final char[] TENS = new char[100];
+    private static final char[] ONES = new char[100];
+    static {
+        for (int i = 0; i < 100; i++) {
+            TENS[i] = (char) ('0' + i / 10);
+            ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
+    // Filled lazily; racing threads may both build an entry, which is harmless
+    private static final String[] CLOCKS = new String[CACHED_CLOCK_SECONDS + 1];
+    private static final String[][] BARS = new String[MAX_CACHED_BAR_WIDTH + 1][];
+
+    private TimeFormat() {
+    }
+
+    /**
+     * Append seconds as MM:SS (minutes keep counting past 59)
+     */
+    public static StringBuilder appendClock(StringBuilder out, int totalSeconds) {
+        if (totalSeconds < 0) {
+            totalSeconds = 0;
+        }
+        appendTwoDigits(out, totalSeconds / 60);
+        out.append(':');
+        appendTwoDigits(out, totalSeconds % 60);
+        return out;
+    }
+
+    /**
+     * Seconds as MM:SS
+     */
+    public static String clock(int totalSeconds) {
+        if (totalSeconds < 0 || totalSeconds > CACHED_CLOCK_SECONDS) {
+            return appendClock(new StringBuilder(8), totalSeconds).toString();
+        }
+        String clock = CLOCKS[totalSeconds];
+        if (clock == null) {
+            clock = appendClock(new StringBuilder(5), totalSeconds).toString();
+            CLOCKS[totalSeconds] = clock;
+        }
+        return clock;
+    }
+
+    /**
+     * Append a value of at least two digits, zero-padded like %02d
+     */
+    public static StringBuilder appendTwoDigits(StringBuilder out, int value) {
+        if (value >= 0 && value < 100) {
+            return out.append(TENS[value]).append(ONES[value]);
+        }
+        return out.append(value);
+    }
+
+    /**
+     * Append microseconds as milliseconds with one decimal, like %.1f
+     */
+    public static StringBuilder appendMillis(StringBuilder out, long micros) {
+        long tenths = (micros + 50) / 100;
+        return out.append(tenths / 10).append('.').append((char) ('0' + tenths % 10));
+    }
+
+    /**
+     * Append a latency histogram's percentiles, e.g. "p50 0.1 ms, p99 1.2 ms, p99.9 3.4 ms"
+     */
+    public static StringBuilder appendLatency(StringBuilder out, LatencyHistogram latency) {
+        appendMillis(out.append("p50 "), latency.getValueAtPercentile(50));
+        appendMillis(out.append(" ms, p99 "), latency.getValueAtPercentile(99));
+        appendMillis(out.append(" ms, p99.9 "), latency.getValueAtPercentile(99.9));
+        return out.append(" ms");
+    }
+
+    /**
+     * Progress bar such as "[===   ]" with the elapsed share filled
+     *
+     * @param remainingSeconds Seconds left in the phase
+     * @param totalSeconds Length of the phase
+     * @param width Characters between the brackets
+     */
+    public static String progressBar(int remainingSeconds, int totalSeconds, int width) {
+        width = Math.max(0, width);
+        int filled = filledCells(remainingSeconds, totalSeconds, width);
+        if (width > MAX_CACHED_BAR_WIDTH) {
+            return appendBar(new StringBuilder(width + 2), filled, width).toString();
+        }
+        String[] bars = BARS[width];
+        if (bars == null) {
+            bars = new String[width + 1];
+            BARS[width] = bars;
+        }
+        String bar = bars[filled];
+        if (bar == null) {
+            bar = appendBar(new StringBuilder(width + 2), filled, width).toString();
+            bars[filled] = bar;
+        }
+        return bar;
+    }
+
+    /**
+     * Append a progress bar; see progressBar()
+     */
+    public static StringBuilder appendProgressBar(StringBuilder out, int remainingSeconds, int totalSeconds, int width) {
+        width = Math.max(0, width);
+        if (width <= MAX_CACHED_BAR_WIDTH) {
+            return out.append(progressBar(remainingSeconds, totalSeconds, width));
+        }
+        return appendBar(out, filledCells(remainingSeconds, totalSeconds, width), width);
+    }
+
+    private static int filledCells(int remainingSeconds, int totalSeconds, int width) {
+        if (totalSeconds <= 0) {
+            totalSeconds = 1; // Prevent division by zero
+        }
+        int filled = (int) (((double) (totalSeconds - remainingSeconds) / totalSeconds) * width);
+        return Math.max(0, Math.min(width, filled));
+    }
+
+    private static StringBuilder appendBar(StringBuilder out, int filled, int width) {
+        out.append('[');
+        for (int i = 0; i < width; i++) {
+            out.append(i < filled ? '=' : ' ');
+        }
+        return out.append(']');
+    }
+}
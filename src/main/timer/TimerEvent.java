@@ -0,0 +1,78 @@
+package main.timer;
+
+import main.model.Task;
+
+/**
+ * Something that happened to a timer, as published by TimerEventPublisher
+ */
+public final class TimerEvent {
+    public enum Type {
+        STARTED,
+        RESUMED,
+        TICK,
+        PHASE_COMPLETE,
+        CYCLE_COMPLETE,
+        TIMER_COMPLETE,
+        PAUSED,
+        CANCELLED
+    }
+
+    private final Type type;
+    private final TaskTimer timer;
+    private final long timeMillis;
+    private final int value;
+
+    TimerEvent(Type type, TaskTimer timer, long timeMillis, int value) {
+        this.type = type;
+        this.timer = timer;
+        this.timeMillis = timeMillis;
+        this.value = value;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public TaskTimer getTimer() {
+        return timer;
+    }
+
+    public Task getTask() {
+        return timer.getTask();
+    }
+
+    /**
+     * When the event happened, in the timer scheduler's time base
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Remaining seconds in the phase, for TICK events
+     */
+    public int getRemainingSeconds() {
+        return type == Type.TICK ? value : 0;
+    }
+
+    /**
+     * Whether the completed phase was a work phase, for PHASE_COMPLETE events
+     */
+    public boolean isWorkPhase() {
+        return type == Type.PHASE_COMPLETE && value != 0;
+    }
+
+    /**
+     * Number of work-break cycles completed so far, for CYCLE_COMPLETE events
+     */
+    public int getCompletedCycles() {
+        return type == Type.CYCLE_COMPLETE ? value : 0;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + timer.getTask().getTitle() + " @" + timeMillis +
+                (type == Type.TICK || type == Type.PHASE_COMPLETE || type == Type.CYCLE_COMPLETE
+                        ? " (" + value + ")" : "");
+    }
+}
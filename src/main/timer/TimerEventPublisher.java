@@ -0,0 +1,286 @@
+package main.timer;
+
+import java.util.ArrayDeque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes timer events to any number of Flow subscribers
+ * Each subscriber chooses the event types it wants, a buffer size and what
+ * to do when it falls behind. Filtering happens at the source: timers ask
+ * isRequested() before building an event, so event types nobody subscribed
+ * to cost one volatile read on the tick path. Events are buffered per
+ * subscriber and delivered on a background thread, never on the timer thread,
+ * and only as fast as the subscriber's demand allows.
+ */
+public class TimerEventPublisher implements Flow.Publisher<TimerEvent> {
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    /**
+     * What to do with a new event when a subscriber's buffer is full
+     */
+    public enum OverflowPolicy {
+        DROP_OLDEST, // Keep the most recent events
+        DROP_LATEST, // Keep the events already buffered
+        ERROR        // Terminate the subscription with an IllegalStateException
+    }
+
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService deliveryExecutor;
+    private volatile int requestedTypes; // Bit per TimerEvent.Type wanted by at least one subscriber
+    private boolean closed; // Guarded by this
+
+    public TimerEventPublisher() {
+        deliveryExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "timer-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Subscribe to every event type, dropping the oldest events on overflow
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super TimerEvent> subscriber) {
+        subscribe(subscriber, EnumSet.allOf(TimerEvent.Type.class), DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribe to some event types only
+     *
+     * @param subscriber The subscriber
+     * @param types The event types to receive
+     * @param bufferSize Events buffered while the subscriber has no demand
+     * @param policy What to do when the buffer is full
+     */
+    public void subscribe(Flow.Subscriber<? super TimerEvent> subscriber, Set<TimerEvent.Type> types,
+                          int bufferSize, OverflowPolicy policy) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, typeMask(types), bufferSize, policy);
+        subscriber.onSubscribe(subscription);
+        synchronized (this) {
+            if (!closed) {
+                subscriptions.add(subscription);
+                updateRequestedTypes();
+                return;
+            }
+        }
+        subscription.complete();
+    }
+
+    /**
+     * Check if any subscriber wants events of this type
+     */
+    public boolean isRequested(TimerEvent.Type type) {
+        return (requestedTypes & (1 << type.ordinal())) != 0;
+    }
+
+    /**
+     * Offer an event to every subscriber that wants its type
+     */
+    void publish(TimerEvent event) {
+        int bit = 1 << event.getType().ordinal();
+        for (EventSubscription subscription : subscriptions) {
+            if ((subscription.typeMask & bit) != 0) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Complete every subscription once its buffered events are delivered
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            for (EventSubscription subscription : subscriptions) {
+                subscription.complete();
+            }
+            subscriptions.clear();
+            updateRequestedTypes();
+        }
+        deliveryExecutor.shutdown();
+    }
+
+    private void remove(EventSubscription subscription) {
+        if (subscriptions.remove(subscription)) {
+            updateRequestedTypes();
+        }
+    }
+
+    private synchronized void updateRequestedTypes() {
+        int mask = 0;
+        for (EventSubscription subscription : subscriptions) {
+            mask |= subscription.typeMask;
+        }
+        requestedTypes = mask;
+    }
+
+    private static int typeMask(Set<TimerEvent.Type> types) {
+        int mask = 0;
+        for (TimerEvent.Type type : types) {
+            mask |= 1 << type.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * One subscriber's buffer, demand and delivery state
+     */
+    private class EventSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super TimerEvent> subscriber;
+        private final int typeMask;
+        private final int bufferSize;
+        private final OverflowPolicy policy;
+        private final ArrayDeque<TimerEvent> buffer = new ArrayDeque<>();
+        private final AtomicInteger drainRequests = new AtomicInteger(); // Serializes delivery
+        // Guarded by this
+        private long demand;
+        private boolean completed;
+        private Throwable error;
+        private boolean terminated;
+
+        EventSubscription(Flow.Subscriber<? super TimerEvent> subscriber, int typeMask,
+                          int bufferSize, OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.typeMask = typeMask;
+            this.bufferSize = bufferSize;
+            this.policy = policy;
+        }
+
+        void offer(TimerEvent event) {
+            synchronized (this) {
+                if (terminated || completed || error != null) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    switch (policy) {
+                        case DROP_OLDEST:
+                            buffer.poll();
+                            break;
+                        case DROP_LATEST:
+                            return;
+                        default:
+                            buffer.clear();
+                            error = new IllegalStateException("Subscriber fell more than " + bufferSize + " events behind");
+                            break;
+                    }
+                }
+                if (error == null) {
+                    buffer.add(event);
+                }
+            }
+            signal();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    buffer.clear();
+                    error = new IllegalArgumentException("Demand must be positive: " + n);
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // Saturate on overflow
+                }
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                terminated = true;
+                buffer.clear();
+            }
+            remove(this);
+        }
+
+        private void signal() {
+            if (drainRequests.getAndIncrement() == 0) {
+                try {
+                    deliveryExecutor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Closed while events were pending: deliver them on this thread instead
+                    run();
+                }
+            }
+        }
+
+        // Deliver buffered events within demand, then any terminal signal
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                while (true) {
+                    TimerEvent next;
+                    Throwable failure = null;
+                    boolean finish = false;
+                    synchronized (this) {
+                        if (terminated) {
+                            break;
+                        }
+                        if (error != null) {
+                            failure = error;
+                            terminated = true;
+                            next = null;
+                        } else if (demand > 0 && !buffer.isEmpty()) {
+                            next = buffer.poll();
+                            if (demand != Long.MAX_VALUE) {
+                                demand--;
+                            }
+                        } else if (completed && buffer.isEmpty()) {
+                            finish = true;
+                            terminated = true;
+                            next = null;
+                        } else {
+                            break;
+                        }
+                    }
+                    if (failure != null) {
+                        remove(this);
+                        subscriber.onError(failure);
+                        break;
+                    }
+                    if (finish) {
+                        subscriber.onComplete();
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(next);
+                    } catch (RuntimeException e) {
+                        // A subscriber that throws is treated as cancelled
+                        cancel();
+                        System.err.println("Timer event subscriber failed: " + e.getMessage());
+                    }
+                }
+                missed = drainRequests.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,116 +1,448 @@
 package main.timer;
 
+import main.io.TimerCheckpointHandler;
+import main.metrics.MetricsRegistry;
 import main.model.Task;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 // Another Singleton pattern instance
 public class TimerManager {
-    private static TimerManager instance;
-    private Map<Task, TaskTimer> activeTimers;
-    private boolean timerUpdateDisplayEnabled = true;
-    
+    // Active timers are read from timer threads, the EDT and the console thread
+    // at the same time. Ticks call listeners while holding their timer's lock,
+    // and a listener may start a timer in turn, so timers are only swapped in
+    // the map atomically; start, pause and cancel are called afterwards,
+    // never while a map bin is locked.
+    private final ConcurrentMap<Task, TaskTimer> activeTimers;
+    private final TimerScheduler scheduler;
+    private final TimerEventPublisher eventPublisher = new TimerEventPublisher();
+
+    private final TickBuckets tickBuckets; // Shared tick groups for timers started together
+    private final TimerStrategyRegistry strategyRegistry = TimerStrategyRegistry.getInstance();
+
+    // State changes are coalesced into one checkpoint write shortly afterwards;
+    // running timers are also checkpointed periodically in case of a crash
+    private static final long CHECKPOINT_DELAY_MILLIS = 250;
+    private static final long CHECKPOINT_INTERVAL_SECONDS = 30;
+    private final TimerCheckpointHandler checkpointHandler; // null when checkpointing is off
+    private final ScheduledExecutorService checkpointExecutor;
+    private final AtomicBoolean checkpointPending = new AtomicBoolean();
+    private final Runnable checkpointRequest;
+
     private TimerManager() {
-        activeTimers = new HashMap<>();
+        this(SystemTimerScheduler.getInstance(), new TickBuckets(SystemTimerScheduler.getInstance()),
+                new TimerCheckpointHandler());
+        registerMetrics();
     }
-    
-    public static TimerManager getInstance() {
-        if (instance == null) {
-            instance = new TimerManager();
+
+    /**
+     * Create a standalone manager on the given scheduler, e.g. a
+     * VirtualTimerScheduler for simulations and tests. Standalone managers
+     * do not checkpoint their timers.
+     */
+    public TimerManager(TimerScheduler scheduler) {
+        this(scheduler, new TickBuckets(scheduler), null);
+    }
+
+    /**
+     * Create a standalone manager that shares tick groups with other managers
+     * on the same scheduler (see ShardedTimerEngine)
+     */
+    TimerManager(TimerScheduler scheduler, TickBuckets tickBuckets) {
+        this(scheduler, tickBuckets, null);
+    }
+
+    private TimerManager(TimerScheduler scheduler, TickBuckets tickBuckets, TimerCheckpointHandler checkpointHandler) {
+        this.activeTimers = new ConcurrentHashMap<>();
+        this.scheduler = scheduler;
+        this.tickBuckets = tickBuckets;
+        this.checkpointHandler = checkpointHandler;
+        if (checkpointHandler == null) {
+            checkpointExecutor = null;
+            checkpointRequest = null;
+            return;
         }
-        return instance;
+
+        checkpointRequest = this::requestCheckpoint;
+        checkpointExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timer-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointExecutor.scheduleAtFixedRate(() -> {
+            if (hasActiveTimers()) {
+                checkpointTimers();
+            }
+        }, CHECKPOINT_INTERVAL_SECONDS, CHECKPOINT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Export the application's timers as focustrack:type=Timers
+     * Everything is derived on read from state the timers keep anyway: the
+     * scheduler already records every tick's lateness, and each record also
+     * counts a tick (one run of the scheduler, which advances a whole tick
+     * group). The tick path does no extra work for metrics.
+     */
+    private void registerMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("Timers", "Active", activeTimers::size);
+        metrics.gauge("Timers", "Running", () -> {
+            long running = 0;
+            for (TaskTimer timer : activeTimers.values()) {
+                if (timer.isRunning()) {
+                    running++;
+                }
+            }
+            return running;
+        });
+        metrics.rate("Timers", "TicksPerSecond", () -> getTickLatency().getCount());
+        metrics.histogram("Timers", "TickLateness", this::getTickLatency);
     }
-    
+
+    // Lazy, thread-safe initialization (initialization-on-demand holder)
+    private static class Holder {
+        private static final TimerManager INSTANCE = new TimerManager();
+    }
+
+    public static TimerManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Start a new timer for the task, atomically replacing (and cancelling)
+     * any timer already registered for it
+     */
     public TaskTimer startTimer(Task task, TimerStrategy strategy) {
-        // Cancel existing timer for this task if any
-        if (activeTimers.containsKey(task)) {
-            activeTimers.get(task).cancel();
-        }
-        
-        TaskTimer timer = new TaskTimer(task, strategy);
-        activeTimers.put(task, timer);
-        timer.start();
-        
+        TimerStrategy canonical = strategyRegistry.intern(strategy);
+        TaskTimer timer = newTimer(task, canonical);
+        replaceTimer(task, timer);
+        startIfCurrent(task, timer, tickBuckets.groupFor(canonical));
         return timer;
     }
-    
+
+    /**
+     * Start timers for a group of tasks under one strategy, replacing any
+     * existing timers. The whole group shares one scheduled tick, so its phase
+     * boundaries fire in the same wake-up.
+     *
+     * @return The started timers, in task order
+     */
+    public List<TaskTimer> startTimers(Collection<Task> tasks, TimerStrategy strategy) {
+        TimerStrategy canonical = strategyRegistry.intern(strategy);
+        TickGroup group = new TickGroup(scheduler, canonical.getPhaseSchedule().getTickMillis());
+        List<TaskTimer> started = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            TaskTimer timer = newTimer(task, canonical);
+            replaceTimer(task, timer);
+            startIfCurrent(task, timer, group);
+            started.add(timer);
+        }
+        return started;
+    }
+
+    private TaskTimer newTimer(Task task, TimerStrategy strategy) {
+        TaskTimer timer = new TaskTimer(task, strategy, scheduler);
+        timer.setStateChangeHook(checkpointRequest);
+        timer.setTickBuckets(tickBuckets);
+        timer.setEventPublisher(eventPublisher);
+        return timer;
+    }
+
+    /**
+     * Register a timer for the task, cancelling the one it replaces
+     */
+    private void replaceTimer(Task task, TaskTimer timer) {
+        TaskTimer existing = activeTimers.put(task, timer);
+        if (existing != null) {
+            existing.cancel();
+        }
+    }
+
+    /**
+     * Start a timer unless another thread has replaced or removed it; if that
+     * happens while it starts, whoever did it may have cancelled it first, so
+     * it is cancelled again rather than left running unregistered
+     */
+    private void startIfCurrent(Task task, TaskTimer timer, TickGroup group) {
+        if (activeTimers.get(task) != timer) {
+            return;
+        }
+        timer.start(group);
+        if (activeTimers.get(task) != timer) {
+            timer.cancel();
+        }
+    }
+
     public void pauseTimer(Task task) {
-        if (activeTimers.containsKey(task)) {
-            activeTimers.get(task).pause();
+        TaskTimer timer = activeTimers.get(task);
+        if (timer != null) {
+            timer.pause();
         }
     }
-    
+
     public void resumeTimer(Task task) {
-        if (activeTimers.containsKey(task)) {
-            activeTimers.get(task).resume();
+        TaskTimer timer = activeTimers.get(task);
+        if (timer != null && !timer.isRunning()) {
+            startIfCurrent(task, timer, tickBuckets.groupFor(timer.getStrategy()));
         }
     }
-    
+
+    /**
+     * Get a shared group for timers with this tick period, creating it on first use
+     */
+    private TickGroup sharedGroupFor(Map<Long, TickGroup> groups, TaskTimer timer) {
+        return groups.computeIfAbsent(timer.getPhaseSchedule().getTickMillis(),
+                tickMillis -> new TickGroup(scheduler, tickMillis));
+    }
+
     public void cancelTimer(Task task) {
-        if (activeTimers.containsKey(task)) {
-            activeTimers.get(task).cancel();
-            activeTimers.remove(task);
+        TaskTimer timer = activeTimers.remove(task);
+        if (timer != null) {
+            timer.cancel();
         }
     }
 
     public void resetTimer(Task task) {
-        if (activeTimers.containsKey(task)) {
-            activeTimers.get(task).reset();
+        TaskTimer timer = activeTimers.get(task);
+        if (timer != null) {
+            timer.reset();
         }
     }
-    
+
+    public TimerScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Stream of events from every timer this manager runs. Subscribers can
+     * pick event types, buffer size and overflow policy via
+     * TimerEventPublisher.subscribe(subscriber, types, bufferSize, policy).
+     */
+    public TimerEventPublisher getEventPublisher() {
+        return eventPublisher;
+    }
+
+    /**
+     * How late timer ticks have fired, in microseconds (p50/p99/p99.9 jitter)
+     */
+    public LatencyHistogram getTickLatency() {
+        return scheduler.getTickLatency();
+    }
+
     public TaskTimer getTimerForTask(Task task) {
         return activeTimers.get(task);
     }
-    
+
     public boolean hasActiveTimer(Task task) {
-        return activeTimers.containsKey(task) && activeTimers.get(task).isRunning();
+        TaskTimer timer = activeTimers.get(task);
+        return timer != null && timer.isRunning();
     }
-    
+
+    /**
+     * Pause every running timer
+     */
+    public void pauseAllTimers() {
+        for (Task task : activeTimers.keySet()) {
+            pauseTimer(task);
+        }
+    }
+
+    /**
+     * Resume every paused timer; the resumed timers share one scheduled tick
+     * (one per tick period when sub-second strategies are mixed in)
+     */
+    public void resumeAllTimers() {
+        Map<Long, TickGroup> groups = new HashMap<>();
+        for (Map.Entry<Task, TaskTimer> entry : activeTimers.entrySet()) {
+            TaskTimer timer = entry.getValue();
+            if (!timer.isRunning()) {
+                startIfCurrent(entry.getKey(), timer, sharedGroupFor(groups, timer));
+            }
+        }
+    }
+
+    /**
+     * Cancel and remove every timer matching the filter
+     *
+     * @return The number of timers cancelled
+     */
+    public int cancelTimers(Predicate<? super TaskTimer> filter) {
+        int cancelled = 0;
+        for (Map.Entry<Task, TaskTimer> entry : activeTimers.entrySet()) {
+            TaskTimer timer = entry.getValue();
+            // Only the timer that was tested is removed, not one that replaced it since
+            if (filter.test(timer) && activeTimers.remove(entry.getKey(), timer)) {
+                timer.cancel();
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
     public void clearAllTimers() {
+        cancelTimers(timer -> true);
+    }
+
+    /**
+     * Apply an action to every running timer without copying the timer set
+     */
+    public void forEachActiveTimer(Consumer<? super TaskTimer> action) {
         for (TaskTimer timer : activeTimers.values()) {
-            timer.cancel();
+            if (timer.isRunning()) {
+                action.accept(timer);
+            }
         }
-        activeTimers.clear();
     }
-    
-    public List<TaskTimer> getAllActiveTimers() {
-        List<TaskTimer> result = new ArrayList<>();
+
+    /**
+     * Check if any timer is currently running
+     */
+    public boolean hasActiveTimers() {
         for (TaskTimer timer : activeTimers.values()) {
             if (timer.isRunning()) {
-                result.add(timer);
+                return true;
             }
         }
+        return false;
+    }
+
+    public List<TaskTimer> getAllActiveTimers() {
+        List<TaskTimer> result = new ArrayList<>();
+        forEachActiveTimer(result::add);
         return result;
     }
-    
-    public void setTimerUpdateDisplayEnabled(boolean enabled) {
-        this.timerUpdateDisplayEnabled = enabled;
+
+    /**
+     * Schedule a checkpoint soon, coalescing bursts of state changes into one write
+     */
+    private void requestCheckpoint() {
+        if (!checkpointPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            checkpointExecutor.schedule(() -> {
+                checkpointPending.set(false);
+                checkpointTimers();
+            }, CHECKPOINT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the final checkpoint has already been written
+        }
+    }
+
+    /**
+     * Write the current timer set to the checkpoint file
+     */
+    public synchronized void checkpointTimers() {
+        if (checkpointHandler == null) {
+            return;
+        }
+        List<TimerCheckpointHandler.Entry> entries = new ArrayList<>(activeTimers.size());
+        for (TaskTimer timer : activeTimers.values()) {
+            entries.add(timer.toCheckpointEntry());
+        }
+        checkpointHandler.saveCheckpoint(scheduler.currentTimeMillis(), entries);
+    }
+
+    /**
+     * Restore timers from the last checkpoint, accounting for the wall-clock
+     * time that passed since it was written. Timers whose session finished in
+     * the meantime are dropped, and tasks that already have a timer are left alone.
+     *
+     * @param tasks The known tasks, matched to saved timers by task id
+     * @return The restored timers, so callers can attach listeners
+     */
+    public List<TaskTimer> restoreTimers(Collection<Task> tasks) {
+        List<TaskTimer> restored = new ArrayList<>();
+        if (checkpointHandler == null) {
+            return restored;
+        }
+        TimerCheckpointHandler.Checkpoint checkpoint = checkpointHandler.loadCheckpoint();
+        if (checkpoint == null) {
+            return restored;
+        }
+
+        Map<String, Task> tasksById = new HashMap<>(tasks.size() * 2);
+        for (Task task : tasks) {
+            tasksById.put(task.getId(), task);
+        }
+        long elapsedMillis = Math.max(0, scheduler.currentTimeMillis() - checkpoint.savedAtMillis);
+        // Entries share one spec instance per distinct strategy
+        Map<TimerCheckpointHandler.StrategySpec, TimerStrategy> strategies = new IdentityHashMap<>();
+        Map<Long, TickGroup> groups = new HashMap<>();
+
+        for (TimerCheckpointHandler.Entry entry : checkpoint.entries) {
+            Task task = tasksById.get(entry.taskId);
+            if (task == null) {
+                continue;
+            }
+            TimerStrategy strategy = strategies.computeIfAbsent(entry.strategy,
+                    spec -> TimerStrategyFactory.createStrategyMillis(spec.name, spec.description,
+                            spec.workMillis, spec.breakMillis, spec.cycleCount, spec.longBreakMillis));
+            TaskTimer timer = new TaskTimer(task, strategy, scheduler);
+            timer.restoreState(entry.phaseIndex, entry.remainingMillis);
+            if (entry.running && !timer.fastForward(elapsedMillis)) {
+                continue;
+            }
+            if (activeTimers.putIfAbsent(task, timer) == null) {
+                timer.setStateChangeHook(checkpointRequest);
+                timer.setTickBuckets(tickBuckets);
+                timer.setEventPublisher(eventPublisher);
+                if (entry.running) {
+                    startIfCurrent(task, timer, sharedGroupFor(groups, timer));
+                }
+                restored.add(timer);
+            }
+        }
+        return restored;
     }
-    
-    public boolean isTimerUpdateDisplayEnabled() {
-        return timerUpdateDisplayEnabled;
+
+    /**
+     * Stop all timers on application exit, keeping them in the checkpoint so
+     * they resume on the next start (unlike clearAllTimers)
+     */
+    public void shutdown() {
+        if (checkpointExecutor != null) {
+            checkpointExecutor.shutdownNow();
+        }
+        checkpointTimers();
+        for (TaskTimer timer : activeTimers.values()) {
+            timer.setStateChangeHook(null);
+            timer.pause();
+        }
+        // Subscribers receive everything published so far, then onComplete
+        eventPublisher.close();
     }
-    
+
     public String getTimerStatusSummary() {
         StringBuilder summary = new StringBuilder();
         summary.append("\n===== Active Timers =====\n");
-        
-        List<TaskTimer> timers = getAllActiveTimers();
-        if (timers.isEmpty()) {
+
+        int[] count = {0};
+        forEachActiveTimer(timer -> timer.appendStatus(summary.append(++count[0]).append(". "))
+                                         .append("\n"));
+        if (count[0] == 0) {
             summary.append("No active timers.\n");
-        } else {
-            for (int i = 0; i < timers.size(); i++) {
-                TaskTimer timer = timers.get(i);
-                summary.append(i + 1).append(". ")
-                       .append(timer.getStatusDisplay())
-                       .append("\n");
-            }
         }
-        
+
+        LatencyHistogram latency = getTickLatency();
+        if (latency.getCount() > 0) {
+            TimeFormat.appendLatency(summary.append("Tick latency: "), latency).append('\n');
+        }
+
         return summary.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package main.timer;
+
+/**
+ * Source of time and scheduling for timers
+ * Lets timers run on the wall clock or on simulated (virtual) time
+ */
+public interface TimerScheduler {
+    /**
+     * Handle to a scheduled task, used to stop further executions
+     */
+    interface Handle {
+        void cancel();
+    }
+
+    /**
+     * Current time in milliseconds, in this scheduler's time base
+     */
+    long currentTimeMillis();
+
+    /**
+     * Run a task repeatedly at a fixed rate
+     *
+     * @param task The task to run
+     * @param initialDelayMillis Delay before the first execution
+     * @param periodMillis Time between executions
+     * @return A handle for cancelling the task
+     */
+    Handle scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis);
+
+    /**
+     * How late scheduled executions ran relative to their due time, in microseconds
+     */
+    LatencyHistogram getTickLatency();
+}
@@ -23,4 +23,31 @@ public interface TimerStrategy {
     default int getTotalBreakSeconds() {
         return getBreakDuration() * 60 + getBreakDurationSeconds();
     }
+    
+    // Session plan: how many work-break cycles to run, then an optional long break
+    default int getCycleCount() {
+        return 1;
+    }
+    
+    default int getTotalLongBreakSeconds() {
+        return 0;
+    }
+    
+    // Millisecond-resolution durations; strategies with sub-second phases override these
+    default long getTotalWorkMillis() {
+        return getTotalWorkSeconds() * 1000L;
+    }
+    
+    default long getTotalBreakMillis() {
+        return getTotalBreakSeconds() * 1000L;
+    }
+    
+    default long getTotalLongBreakMillis() {
+        return getTotalLongBreakSeconds() * 1000L;
+    }
+    
+    // Compiled session plan; immutable strategies compute it once
+    default PhaseSchedule getPhaseSchedule() {
+        return PhaseSchedule.compile(this);
+    }
 }
\ No newline at end of file
@@ -10,20 +10,11 @@ public class TimerStrategyFactory {
      * Create a timer strategy based on the strategy type
      * 
      * @param strategyType The type of strategy to create
-     * @return The created TimerStrategy instance
+     * @return The shared TimerStrategy instance
      */
     public static TimerStrategy createStrategy(TimerStrategyType strategyType) {
-        switch (strategyType) {
-            case POMODORO:
-                return new PomodoroTimer();
-            case SHORT_BREAK:
-                return new ShortBreakTimer();
-            case LONG_BREAK:
-                return new LongBreakTimer();
-            default:
-                // Default to Pomodoro
-                return new PomodoroTimer();
-        }
+        // Built-ins are interned; CUSTOM defaults to Pomodoro
+        return TimerStrategyRegistry.getInstance().getBuiltIn(strategyType);
     }
     
     /**
@@ -45,36 +36,69 @@ public class TimerStrategyFactory {
         final int breakMinutes,
         final int breakSeconds) {
     
-            return new TimerStrategy() {
-                @Override
-                public int getWorkDuration() {
-                    return workMinutes;
-                }
-                
-                @Override
-                public int getWorkDurationSeconds() {
-                    return workSeconds;
-                }
-
-                @Override
-                public int getBreakDuration() {
-                    return breakMinutes;
-                }
-                
-                @Override
-                public int getBreakDurationSeconds() {
-                    return breakSeconds;
-                }
-
-                @Override
-                public String getName() {
-                    return name;
-                }
-
-                @Override
-                public String getDescription() {
-                    return description;
-                }
-            };
+            return createSessionStrategy(name, description, workMinutes, workSeconds, breakMinutes, breakSeconds, 1, 0);
+        }
+    
+    /**
+     * Create a custom multi-cycle session strategy
+     * 
+     * @param name The name of the strategy
+     * @param description The description of the strategy
+     * @param workMinutes The work duration in minutes
+     * @param workSeconds & seconds
+     * @param breakMinutes The break duration in minutes
+     * @param breakSeconds & seconds
+     * @param cycles The number of work-break cycles in the session
+     * @param longBreakSeconds The long break after the last cycle in seconds (0 for none)
+     * @return A custom TimerStrategy
+     */
+    public static TimerStrategy createSessionStrategy(
+        final String name, 
+        final String description, 
+        final int workMinutes,
+        final int workSeconds,
+        final int breakMinutes,
+        final int breakSeconds,
+        final int cycles,
+        final int longBreakSeconds) {
+    
+            return TimerStrategyRegistry.getInstance().intern(name, description,
+                    workMinutes * 60 + workSeconds,
+                    breakMinutes * 60 + breakSeconds,
+                    cycles, longBreakSeconds);
         }
+    
+    /**
+     * Recreate a strategy from its saved name and durations
+     * 
+     * @param name The name of the strategy
+     * @param description The description of the strategy
+     * @param workSeconds The total work duration in seconds
+     * @param breakSeconds The total break duration in seconds
+     * @param cycles The number of work-break cycles in the session
+     * @param longBreakSeconds The long break after the last cycle in seconds
+     * @return The interned strategy with these values
+     */
+    public static TimerStrategy createStrategy(String name, String description, int workSeconds, int breakSeconds,
+                                               int cycles, int longBreakSeconds) {
+        return TimerStrategyRegistry.getInstance().intern(name, description,
+                workSeconds, breakSeconds, cycles, longBreakSeconds);
+    }
+    
+    /**
+     * Create a strategy with millisecond-resolution durations, e.g. for short drills
+     * 
+     * @param name The name of the strategy
+     * @param description The description of the strategy
+     * @param workMillis The work duration in milliseconds
+     * @param breakMillis The break duration in milliseconds
+     * @param cycles The number of work-break cycles in the session
+     * @param longBreakMillis The long break after the last cycle in milliseconds
+     * @return The interned strategy with these values
+     */
+    public static TimerStrategy createStrategyMillis(String name, String description, long workMillis, long breakMillis,
+                                                     int cycles, long longBreakMillis) {
+        return TimerStrategyRegistry.getInstance().intern(ImmutableTimerStrategy.ofMillis(name, description,
+                workMillis, breakMillis, cycles, longBreakMillis));
+    }
 }
\ No newline at end of file
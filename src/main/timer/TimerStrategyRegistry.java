@@ -0,0 +1,216 @@
+package main.timer;
+
+import main.io.StrategyFileHandler;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of interned, immutable timer strategies
+ * Equal strategies always resolve to the same instance, so timers can be
+ * grouped and indexed by strategy identity. Named strategies are loaded from
+ * a config file and hot-reloaded when it changes; running timers keep the
+ * strategy instance they were started with.
+ * Follows the Singleton pattern
+ */
+public class TimerStrategyRegistry {
+    private final ConcurrentMap<ImmutableTimerStrategy, ImmutableTimerStrategy> interned;
+    private final Map<TimerStrategyType, ImmutableTimerStrategy> builtIns;
+    private final StrategyFileHandler fileHandler;
+    // Replaced as a whole on reload, so readers never see a half-loaded set
+    private volatile Map<String, ImmutableTimerStrategy> strategiesByName;
+    private volatile List<ImmutableTimerStrategy> customStrategies;
+    private Thread watcherThread;
+
+    private TimerStrategyRegistry() {
+        interned = new ConcurrentHashMap<>();
+        builtIns = new EnumMap<>(TimerStrategyType.class);
+        builtIns.put(TimerStrategyType.POMODORO, intern(new PomodoroTimer()));
+        builtIns.put(TimerStrategyType.SHORT_BREAK, intern(new ShortBreakTimer()));
+        builtIns.put(TimerStrategyType.LONG_BREAK, intern(new LongBreakTimer()));
+        builtIns.put(TimerStrategyType.POMODORO_SESSION, intern(new PomodoroSessionTimer()));
+        fileHandler = new StrategyFileHandler();
+        reload();
+    }
+
+    private static class Holder {
+        private static final TimerStrategyRegistry INSTANCE = new TimerStrategyRegistry();
+    }
+
+    public static TimerStrategyRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Get the canonical instance of a strategy with the same values
+     */
+    public ImmutableTimerStrategy intern(TimerStrategy strategy) {
+        ImmutableTimerStrategy value = strategy instanceof ImmutableTimerStrategy
+                ? (ImmutableTimerStrategy) strategy
+                : ImmutableTimerStrategy.copyOf(strategy);
+        ImmutableTimerStrategy existing = interned.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    public ImmutableTimerStrategy intern(String name, String description, int workSeconds, int breakSeconds,
+                                         int cycles, int longBreakSeconds) {
+        return intern(new ImmutableTimerStrategy(name, description, workSeconds, breakSeconds,
+                cycles, longBreakSeconds));
+    }
+
+    /**
+     * Get the canonical built-in strategy for a type (Pomodoro for CUSTOM)
+     */
+    public ImmutableTimerStrategy getBuiltIn(TimerStrategyType type) {
+        ImmutableTimerStrategy strategy = builtIns.get(type);
+        return strategy != null ? strategy : builtIns.get(TimerStrategyType.POMODORO);
+    }
+
+    /**
+     * Look up a built-in or configured strategy by name
+     */
+    public ImmutableTimerStrategy getStrategy(String name) {
+        return strategiesByName.get(name);
+    }
+
+    /**
+     * Look up a strategy typed by a user: a built-in type such as
+     * "short_break", or a strategy name, ignoring case
+     *
+     * @return The strategy, or null if there is none by that name
+     */
+    public ImmutableTimerStrategy findStrategy(String name) {
+        for (TimerStrategyType type : builtIns.keySet()) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return builtIns.get(type);
+            }
+        }
+        ImmutableTimerStrategy strategy = strategiesByName.get(name);
+        if (strategy != null) {
+            return strategy;
+        }
+        for (ImmutableTimerStrategy candidate : strategiesByName.values()) {
+            if (candidate.getName().equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * All named strategies: built-ins first, then configured ones
+     */
+    public Collection<ImmutableTimerStrategy> getStrategies() {
+        return strategiesByName.values();
+    }
+
+    /**
+     * Strategies defined in the config file (including ones registered at runtime)
+     */
+    public List<ImmutableTimerStrategy> getCustomStrategies() {
+        return customStrategies;
+    }
+
+    /**
+     * Keep a strategy for later use, adding it to the config file
+     * A strategy with the same name is replaced
+     */
+    public synchronized ImmutableTimerStrategy register(TimerStrategy strategy) {
+        ImmutableTimerStrategy canonical = intern(strategy);
+        List<ImmutableTimerStrategy> updated = new ArrayList<>();
+        for (ImmutableTimerStrategy existing : customStrategies) {
+            if (!existing.getName().equals(canonical.getName())) {
+                updated.add(existing);
+            }
+        }
+        updated.add(canonical);
+        fileHandler.saveStrategies(updated);
+        publish(updated);
+        return canonical;
+    }
+
+    /**
+     * Reload configured strategies from the config file
+     */
+    public synchronized void reload() {
+        List<ImmutableTimerStrategy> loaded = new ArrayList<>();
+        for (ImmutableTimerStrategy strategy : fileHandler.loadStrategies()) {
+            loaded.add(intern(strategy));
+        }
+        publish(loaded);
+    }
+
+    private void publish(List<ImmutableTimerStrategy> configured) {
+        Map<String, ImmutableTimerStrategy> byName = new LinkedHashMap<>();
+        for (ImmutableTimerStrategy strategy : builtIns.values()) {
+            byName.put(strategy.getName(), strategy);
+        }
+        for (ImmutableTimerStrategy strategy : configured) {
+            byName.put(strategy.getName(), strategy);
+        }
+        customStrategies = Collections.unmodifiableList(configured);
+        strategiesByName = Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Watch the config file and reload it whenever it changes
+     */
+    public synchronized void startWatching() {
+        if (watcherThread != null) {
+            return;
+        }
+
+        Path configPath = fileHandler.getPath().toAbsolutePath();
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            configPath.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("Cannot watch strategy config: " + e.getMessage());
+            return;
+        }
+
+        watcherThread = new Thread(() -> watchConfig(watchService, configPath), "strategy-config-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watchConfig(WatchService watchService, Path configPath) {
+        Path fileName = configPath.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    // Let the writer finish before reading
+                    Thread.sleep(100);
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
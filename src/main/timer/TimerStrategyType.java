@@ -8,5 +8,6 @@ public enum TimerStrategyType {
     POMODORO,
     SHORT_BREAK,
     LONG_BREAK,
+    POMODORO_SESSION,
     CUSTOM
 }
\ No newline at end of file
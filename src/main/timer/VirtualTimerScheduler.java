@@ -0,0 +1,111 @@
+package main.timer;
+
+import java.util.PriorityQueue;
+
+/**
+ * Scheduler driven by simulated time
+ * Time only moves when advanceBy/advanceTo is called, and due tasks then run
+ * immediately on the calling thread in deadline order, so a day of timers can
+ * be simulated deterministically in a fraction of a second
+ */
+public class VirtualTimerScheduler implements TimerScheduler {
+    private final PriorityQueue<ScheduledTask> queue;
+    private long now;
+    private long sequence; // Breaks ties between tasks due at the same time
+    private long executedTasks;
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+
+    private static class ScheduledTask implements Handle, Comparable<ScheduledTask> {
+        private final Runnable task;
+        private final long periodMillis;
+        private final long order;
+        private long dueAt;
+        private boolean cancelled;
+
+        ScheduledTask(Runnable task, long dueAt, long periodMillis, long order) {
+            this.task = task;
+            this.dueAt = dueAt;
+            this.periodMillis = periodMillis;
+            this.order = order;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int byTime = Long.compare(dueAt, other.dueAt);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    public VirtualTimerScheduler() {
+        this(0);
+    }
+
+    public VirtualTimerScheduler(long startMillis) {
+        this.queue = new PriorityQueue<>();
+        this.now = startMillis;
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return now;
+    }
+
+    @Override
+    public synchronized Handle scheduleAtFixedRate(Runnable task, long initialDelayMillis, long periodMillis) {
+        ScheduledTask scheduled = new ScheduledTask(task, now + initialDelayMillis, periodMillis, sequence++);
+        queue.add(scheduled);
+        return scheduled;
+    }
+
+    /**
+     * Move time forward, running every task that falls due on the way
+     */
+    public synchronized void advanceBy(long millis) {
+        advanceTo(now + millis);
+    }
+
+    /**
+     * Move time forward to the given instant, running every task due up to it
+     */
+    public synchronized void advanceTo(long targetMillis) {
+        while (!queue.isEmpty() && queue.peek().dueAt <= targetMillis) {
+            ScheduledTask next = queue.poll();
+            if (next.cancelled) {
+                continue;
+            }
+            now = next.dueAt;
+            tickLatency.record(0); // Simulated time never runs late
+            next.task.run();
+            executedTasks++;
+            if (!next.cancelled) {
+                next.dueAt += next.periodMillis;
+                queue.add(next);
+            }
+        }
+        now = Math.max(now, targetMillis);
+    }
+
+    /**
+     * Number of scheduled tasks still pending (including cancelled ones not yet discarded)
+     */
+    public synchronized int getPendingTaskCount() {
+        return queue.size();
+    }
+
+    @Override
+    public LatencyHistogram getTickLatency() {
+        return tickLatency;
+    }
+
+    /**
+     * Total number of task executions so far
+     */
+    public synchronized long getExecutedTaskCount() {
+        return executedTasks;
+    }
+}
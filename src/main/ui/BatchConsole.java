@@ -0,0 +1,101 @@
+package main.ui;
+
+import main.model.TaskManager;
+import main.timer.TimeFormat;
+import main.timer.TimerManager;
+import main.timer.TimerStrategyRegistry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs a script of console commands without prompts, e.g. piped from a file
+ * Uses the same commands as the interactive console (see ConsoleCommands).
+ * The script runs at full speed: auto-save is off while it runs and the task
+ * list is written once at the end, so a script adding thousands of tasks does
+ * not rewrite the file after each one. Prints a throughput summary when done.
+ */
+public class BatchConsole {
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public BatchConsole(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Run every command in the script
+     *
+     * @return The number of commands that failed
+     * @throws IOException If the script could not be read
+     */
+    public int run(BufferedReader script) throws IOException {
+        TaskManager taskManager = TaskManager.getInstance();
+        TimerManager timerManager = TimerManager.getInstance();
+        boolean autoSave = taskManager.isAutoSave();
+        taskManager.setAutoSave(false);
+        timerManager.restoreTimers(taskManager.getTasks());
+        ConsoleCommands commands = new ConsoleCommands(taskManager, timerManager,
+                TimerStrategyRegistry.getInstance(), timer -> { });
+
+        Map<String, int[]> counts = new LinkedHashMap<>();
+        StringBuilder shown = new StringBuilder();
+        int executed = 0;
+        int failed = 0;
+        int lineNumber = 0;
+        long started = System.nanoTime();
+        String line;
+        while ((line = script.readLine()) != null) {
+            lineNumber++;
+            String verb = ConsoleCommands.verbOf(line);
+            if (verb.isEmpty()) {
+                continue;
+            }
+            executed++;
+            counts.computeIfAbsent(verb, key -> new int[1])[0]++;
+            try {
+                shown.setLength(0);
+                commands.execute(line, shown);
+                if (shown.length() > 0) {
+                    out.print(shown);
+                }
+            } catch (IllegalArgumentException e) {
+                failed++;
+                err.println("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        long saveStarted = System.nanoTime();
+        timerManager.shutdown();
+        taskManager.saveTasks();
+        long saveNanos = System.nanoTime() - saveStarted;
+        taskManager.setAutoSave(autoSave);
+
+        out.print(summary(executed, failed, counts, elapsedNanos, saveNanos, taskManager.getTasks().size()));
+        out.flush();
+        return failed;
+    }
+
+    private static String summary(int executed, int failed, Map<String, int[]> counts, long elapsedNanos,
+                                  long saveNanos, int taskCount) {
+        StringBuilder summary = new StringBuilder();
+        summary.append("\n===== Batch Summary =====\n");
+        summary.append(executed).append(" commands in ");
+        TimeFormat.appendMillis(summary, elapsedNanos / 1000).append(" ms");
+        if (elapsedNanos > 0) {
+            summary.append(" (").append(Math.round(executed * 1e9 / elapsedNanos)).append(" commands/s)");
+        }
+        summary.append(", ").append(failed).append(" failed\n");
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            summary.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()[0]).append('\n');
+        }
+        summary.append("Saved ").append(taskCount).append(" tasks and timers in ");
+        TimeFormat.appendMillis(summary, saveNanos / 1000).append(" ms\n");
+        return summary.toString();
+    }
+}
@@ -0,0 +1,286 @@
+package main.ui;
+
+import main.metrics.MetricsRegistry;
+import main.model.Task;
+import main.model.TaskManager;
+import main.sound.SoundManager;
+import main.timer.*;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Text commands for the console, shared by the interactive menu and batch scripts
+ * One command per line, e.g. "add Write report | due Friday", "start 3 short"
+ * or "complete last". Tasks are referred to by their number in the task list,
+ * or "last" for the most recently added one. A command that changes something
+ * returns a one-line confirmation; one that shows something (list, metrics, help)
+ * appends it to the output instead. Invalid commands throw an
+ * IllegalArgumentException whose message is meant for the user.
+ */
+final class ConsoleCommands {
+    static final String HELP =
+            "Commands:\n" +
+            "  add <title> [| <description>]   Add a task\n" +
+            "  start <task> [<strategy>]       Start a timer: pomodoro (default), short, long,\n" +
+            "                                  session or the name of a saved timer\n" +
+            "  pause <task>                    Pause a timer\n" +
+            "  resume <task>                   Resume a paused timer\n" +
+            "  cancel <task>                   Cancel a timer\n" +
+            "  complete <task>                 Mark a task as completed and cancel its timer\n" +
+            "  delete <task>                   Delete a task and cancel its timer\n" +
+            "  list                            Show all tasks\n" +
+            "  sound on|off                    Turn sounds on or off\n" +
+            "  volume <percent>                Set the sound volume\n" +
+            "  save                            Write the task list to disk\n" +
+            "  metrics                         Show timer, storage, task and sound metrics\n" +
+            "  help                            Show this list\n" +
+            "<task> is a number from the task list, or \"last\"; lines starting with # are ignored\n";
+
+    private final TaskManager taskManager;
+    private final TimerManager timerManager;
+    private final TimerStrategyRegistry strategyRegistry;
+    private final Consumer<TaskTimer> timerStarted;
+
+    /**
+     * @param timerStarted Called with every timer a command starts, e.g. to attach a listener
+     */
+    ConsoleCommands(TaskManager taskManager, TimerManager timerManager, TimerStrategyRegistry strategyRegistry,
+                    Consumer<TaskTimer> timerStarted) {
+        this.taskManager = taskManager;
+        this.timerManager = timerManager;
+        this.strategyRegistry = strategyRegistry;
+        this.timerStarted = timerStarted;
+    }
+
+    /**
+     * Name of a command line, lower case ("" for a blank line or a comment)
+     */
+    static String verbOf(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return "";
+        }
+        int space = trimmed.indexOf(' ');
+        return (space < 0 ? trimmed : trimmed.substring(0, space)).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Run one command line
+     *
+     * @param out Receives what list, metrics and help show
+     * @return Confirmation of a change, or null if there is nothing to confirm
+     * @throws IllegalArgumentException If the command or its arguments are invalid
+     */
+    String execute(String line, StringBuilder out) {
+        String verb = verbOf(line);
+        String argument = line.trim().substring(verb.length()).trim();
+        switch (verb) {
+            case "":
+                return null;
+            case "add":
+                return add(argument);
+            case "start":
+                return start(argument);
+            case "pause":
+                return pause(argument);
+            case "resume":
+                return resume(argument);
+            case "cancel":
+                return cancel(argument);
+            case "complete":
+                return complete(argument);
+            case "delete":
+                return delete(argument);
+            case "list":
+                appendTaskList(out);
+                return null;
+            case "sound":
+                return sound(argument);
+            case "volume":
+                return volume(argument);
+            case "save":
+                taskManager.saveTasks();
+                return "Saved " + taskManager.getTasks().size() + " tasks";
+            case "metrics":
+                MetricsRegistry.getInstance().appendTo(out);
+                return null;
+            case "help":
+                out.append(HELP);
+                return null;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + verb + " (type help for a list)");
+        }
+    }
+
+    /**
+     * Append the numbered task list, as shown by the list command and the menu
+     */
+    void appendTaskList(StringBuilder out) {
+        out.append("\n===== Task List =====\n");
+        if (taskManager.getTasks().isEmpty()) {
+            out.append("No tasks available.\n");
+            return;
+        }
+        for (int i = 0; i < taskManager.getTasks().size(); i++) {
+            Task task = taskManager.getTasks().get(i);
+            out.append(i).append(": ").append(task.getTitle()).append(" - ").append(task.getStatus());
+            if (timerManager.hasActiveTimer(task)) {
+                out.append(" [⏱️ Active]");
+            }
+            out.append('\n');
+            if (task.getCompletedPomodoros() > 0) {
+                out.append("   Completed pomodoros: ").append(task.getCompletedPomodoros()).append('\n');
+            }
+        }
+        out.append("\nProgress: ").append(taskManager.getCompletionRate()).append("%\n");
+    }
+
+    private String add(String argument) {
+        int separator = argument.indexOf('|');
+        String title = (separator < 0 ? argument : argument.substring(0, separator)).trim();
+        String description = separator < 0 ? "" : argument.substring(separator + 1).trim();
+        if (title.isEmpty()) {
+            throw new IllegalArgumentException("Usage: add <title> [| <description>]");
+        }
+        taskManager.addTask(new Task(text(title), text(description)));
+        return "Task added: " + title;
+    }
+
+    /**
+     * Check a title or description can be saved: the tasks file separates
+     * fields with | and tasks with line breaks (the same rule as the daemon's)
+     */
+    static String text(String value) {
+        if (value.indexOf('|') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Titles and descriptions can't contain | or line breaks");
+        }
+        return value;
+    }
+
+    private String start(String argument) {
+        int space = argument.indexOf(' ');
+        Task task = taskAt(space < 0 ? argument : argument.substring(0, space));
+        TimerStrategy strategy = strategyNamed(space < 0 ? "" : argument.substring(space + 1).trim());
+        timerStarted.accept(timerManager.startTimer(task, strategy));
+        return "Timer started for task: " + task.getTitle() + " (" + strategy.getName() + ")";
+    }
+
+    private String pause(String argument) {
+        Task task = taskAt(argument);
+        if (!timerManager.hasActiveTimer(task)) {
+            throw new IllegalArgumentException("No active timer for this task.");
+        }
+        timerManager.pauseTimer(task);
+        return "Timer paused for task: " + task.getTitle();
+    }
+
+    private String resume(String argument) {
+        Task task = taskAt(argument);
+        TaskTimer timer = timerManager.getTimerForTask(task);
+        if (timer == null || timer.isRunning()) {
+            throw new IllegalArgumentException("No paused timer for this task.");
+        }
+        timerManager.resumeTimer(task);
+        return "Timer resumed for task: " + task.getTitle();
+    }
+
+    private String cancel(String argument) {
+        Task task = taskAt(argument);
+        if (timerManager.getTimerForTask(task) == null) {
+            throw new IllegalArgumentException("No timer for this task.");
+        }
+        timerManager.cancelTimer(task);
+        return "Timer cancelled for task: " + task.getTitle();
+    }
+
+    private String complete(String argument) {
+        int index = taskIndex(argument);
+        Task task = taskManager.getTasks().get(index);
+        taskManager.completeTask(index);
+        if (timerManager.getTimerForTask(task) != null) {
+            timerManager.cancelTimer(task);
+        }
+        return "Task marked as completed: " + task.getTitle();
+    }
+
+    private String delete(String argument) {
+        int index = taskIndex(argument);
+        Task task = taskManager.getTasks().get(index);
+        if (timerManager.getTimerForTask(task) != null) {
+            timerManager.cancelTimer(task);
+        }
+        taskManager.deleteTask(index);
+        return "Task deleted: " + task.getTitle();
+    }
+
+    private String sound(String argument) {
+        // The sound system is only loaded by commands that need it
+        SoundManager soundManager = SoundManager.getInstance();
+        switch (argument.toLowerCase(Locale.ROOT)) {
+            case "on":
+                soundManager.setSoundEnabled(true);
+                return "Sound enabled";
+            case "off":
+                soundManager.setSoundEnabled(false);
+                return "Sound disabled";
+            default:
+                throw new IllegalArgumentException("Usage: sound on|off");
+        }
+    }
+
+    private String volume(String argument) {
+        int percent;
+        try {
+            percent = Integer.parseInt(argument.endsWith("%") ? argument.substring(0, argument.length() - 1) : argument);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Usage: volume <percent>");
+        }
+        SoundManager soundManager = SoundManager.getInstance();
+        soundManager.setVolume(percent / 100f);
+        return "Volume set to " + Math.round(soundManager.getVolume() * 100) + "%";
+    }
+
+    private Task taskAt(String reference) {
+        return taskManager.getTasks().get(taskIndex(reference));
+    }
+
+    private int taskIndex(String reference) {
+        int size = taskManager.getTasks().size();
+        int index;
+        if (reference.equalsIgnoreCase("last")) {
+            index = size - 1;
+        } else {
+            try {
+                index = Integer.parseInt(reference);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected a task number or \"last\", got \"" + reference + "\"");
+            }
+        }
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Invalid task number.");
+        }
+        return index;
+    }
+
+    private TimerStrategy strategyNamed(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "":
+            case "pomodoro":
+                return strategyRegistry.getBuiltIn(TimerStrategyType.POMODORO);
+            case "short":
+                return strategyRegistry.getBuiltIn(TimerStrategyType.SHORT_BREAK);
+            case "long":
+                return strategyRegistry.getBuiltIn(TimerStrategyType.LONG_BREAK);
+            case "session":
+                return strategyRegistry.getBuiltIn(TimerStrategyType.POMODORO_SESSION);
+            default:
+                break;
+        }
+        TimerStrategy strategy = strategyRegistry.findStrategy(name);
+        if (strategy != null) {
+            return strategy;
+        }
+        throw new IllegalArgumentException("Unknown timer strategy: " + name);
+    }
+}
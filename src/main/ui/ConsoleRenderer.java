@@ -0,0 +1,88 @@
+package main.ui;
+
+import java.io.PrintStream;
+
+/**
+ * Draws console screens and updates them in place
+ * Remembers the last frame it drew. An update compares the new frame with it
+ * line by line and rewrites, with cursor addressing, only the end of each
+ * line that changed - typically a countdown's last digit - instead of
+ * clearing the terminal and printing everything again. The cursor is saved
+ * and restored around an update, so the user's typing at the prompt on the
+ * last line is left alone.
+ */
+final class ConsoleRenderer {
+    private static final String CSI = "\033[";
+    private static final String CLEAR_SCREEN = CSI + "H" + CSI + "2J";
+    private static final String SAVE_CURSOR = "\0337";
+    private static final String RESTORE_CURSOR = "\0338";
+
+    private final PrintStream out;
+    private String[] shown; // Lines on screen, or null if something else was printed since
+
+    ConsoleRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Clear the screen and draw a frame; its last line is left open as the prompt
+     */
+    synchronized void draw(String frame) {
+        out.print(CLEAR_SCREEN + frame);
+        out.flush();
+        shown = frame.split("\r?\n", -1);
+    }
+
+    /**
+     * Bring the screen up to date with a frame, rewriting only what changed.
+     * Falls back to draw() if the number of lines or the prompt changed; does
+     * nothing if the screen was invalidated, as it then shows other output.
+     */
+    synchronized void update(String frame) {
+        if (shown == null) {
+            return;
+        }
+        String[] lines = frame.split("\r?\n", -1);
+        int last = lines.length - 1;
+        if (lines.length != shown.length || !lines[last].equals(shown[last])) {
+            draw(frame);
+            return;
+        }
+        StringBuilder changes = new StringBuilder();
+        for (int row = 0; row < last; row++) {
+            if (!lines[row].equals(shown[row])) {
+                int column = firstDifference(shown[row], lines[row]);
+                changes.append(CSI).append(row + 1).append(';').append(column + 1).append('H')
+                       .append(lines[row], column, lines[row].length())
+                       .append(CSI).append('K'); // Clear whatever the old line had beyond the new one
+            }
+        }
+        if (changes.length() > 0) {
+            out.print(SAVE_CURSOR + changes + RESTORE_CURSOR);
+            out.flush();
+            shown = lines;
+        }
+    }
+
+    /**
+     * Forget the frame on screen before printing other output; updates are
+     * ignored until the next draw()
+     */
+    synchronized void invalidate() {
+        shown = null;
+    }
+
+    // Column from which the lines differ. Before a non-ASCII character the
+    // terminal column is not known (emoji are two wide), so start over at 0.
+    private static int firstDifference(String before, String after) {
+        int limit = Math.min(before.length(), after.length());
+        int column = 0;
+        while (column < limit && before.charAt(column) == after.charAt(column)) {
+            if (after.charAt(column) >= 0x80) {
+                return 0;
+            }
+            column++;
+        }
+        return column;
+    }
+}
@@ -0,0 +1,147 @@
+package main.ui;
+
+import main.timer.TimeFormat;
+
+import javax.swing.JComponent;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Countdown digits over a progress bar, painted as one component
+ * Replaces a JLabel and a JProgressBar, whose every change triggered a
+ * relayout and a full repaint of both. The static parts (background, bar
+ * track) are drawn once into a cached image. A change of the digits repaints
+ * only the digits' strip; a change of progress repaints only the slice of the
+ * bar between the old and the new fill, so a smooth bar costs a pixel or
+ * two per frame. The size never depends on the values, so nothing is laid
+ * out again.
+ */
+class CountdownDisplay extends JComponent {
+    private static final Font DIGITS_FONT = new Font("SansSerif", Font.BOLD, 80);
+    private static final int BAR_HEIGHT = 15;
+    private static final int GAP = 20;
+    private static final Color TRACK_COLOR = new Color(225, 225, 225);
+    private static final Color TRACK_BORDER = new Color(190, 190, 190);
+    private static final Color FILL_COLOR = new Color(70, 130, 180);
+
+    private int seconds = -1;
+    private String digits = "";
+    private double progress;
+    private int filledWidth; // Pixels of the bar currently painted as filled
+    private BufferedImage background; // Cached static layer, rebuilt on resize
+
+    CountdownDisplay(int width) {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setForeground(Color.BLACK);
+        int digitsHeight = getFontMetrics(DIGITS_FONT).getHeight();
+        setPreferredSize(new Dimension(width, digitsHeight + GAP + BAR_HEIGHT));
+    }
+
+    /**
+     * Show a remaining time, in seconds
+     */
+    void setSeconds(int seconds) {
+        if (seconds == this.seconds) {
+            return;
+        }
+        this.seconds = seconds;
+        String previous = digits;
+        digits = TimeFormat.clock(seconds);
+
+        // Usually only the last digit or two change: repaint just those
+        FontMetrics metrics = getFontMetrics(DIGITS_FONT);
+        int width = metrics.stringWidth(digits);
+        if (width != metrics.stringWidth(previous)) {
+            repaint(0, 0, getWidth(), digitsHeight());
+            return;
+        }
+        int common = 0;
+        while (common < digits.length() && digits.charAt(common) == previous.charAt(common)) {
+            common++;
+        }
+        int from = (getWidth() - width) / 2 + metrics.stringWidth(digits.substring(0, common));
+        int to = (getWidth() + width) / 2;
+        repaint(from - 2, 0, to - from + 4, digitsHeight()); // 2 px either side for antialiasing
+    }
+
+    int getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Show how much of the phase is done, from 0.0 to 1.0
+     */
+    void setProgress(double progress) {
+        this.progress = Math.max(0.0, Math.min(1.0, progress));
+        int filled = (int) Math.round(this.progress * barWidth());
+        if (filled != filledWidth) {
+            // Only the slice between the old and the new fill changes
+            int from = Math.min(filled, filledWidth);
+            int to = Math.max(filled, filledWidth);
+            filledWidth = filled;
+            repaint(from, barY(), to - from + 2, BAR_HEIGHT); // +2 for the track border offset
+        }
+    }
+
+    double getProgress() {
+        return progress;
+    }
+
+    /**
+     * Width of the bar in pixels, i.e. the number of steps of visible progress
+     */
+    int getBarWidth() {
+        return barWidth();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (background == null || background.getWidth() != getWidth() || background.getHeight() != getHeight()) {
+            background = renderBackground();
+            filledWidth = (int) Math.round(progress * barWidth());
+        }
+        g.drawImage(background, 0, 0, null);
+
+        if (filledWidth > 0) {
+            g.setColor(FILL_COLOR);
+            g.fillRect(1, barY() + 1, Math.min(filledWidth, barWidth() - 2), BAR_HEIGHT - 2);
+        }
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null || clip.y < digitsHeight()) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(DIGITS_FONT);
+            g2.setColor(getForeground());
+            FontMetrics metrics = g2.getFontMetrics();
+            g2.drawString(digits, (getWidth() - metrics.stringWidth(digits)) / 2, metrics.getAscent());
+        }
+    }
+
+    private BufferedImage renderBackground() {
+        BufferedImage image = new BufferedImage(Math.max(1, getWidth()), Math.max(1, getHeight()),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setColor(TRACK_COLOR);
+        g.fillRect(0, barY(), barWidth(), BAR_HEIGHT);
+        g.setColor(TRACK_BORDER);
+        g.drawRect(0, barY(), barWidth() - 1, BAR_HEIGHT - 1);
+        g.dispose();
+        return image;
+    }
+
+    private int digitsHeight() {
+        return getFontMetrics(DIGITS_FONT).getHeight();
+    }
+
+    private int barY() {
+        return getHeight() - BAR_HEIGHT;
+    }
+
+    private int barWidth() {
+        return getWidth();
+    }
+}
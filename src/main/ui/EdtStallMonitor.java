@@ -0,0 +1,66 @@
+package main.ui;
+
+import main.timer.LatencyHistogram;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InvocationEvent;
+
+/**
+ * Event queue that measures how long each event blocks the EDT
+ * Installed with -Dfocustrack.edtMonitor=true. Every dispatch is recorded
+ * in a histogram (microseconds); events over the stall threshold
+ * (-Dfocustrack.edtStallMillis, default 50) are reported as they happen.
+ */
+final class EdtStallMonitor extends EventQueue {
+    private static final boolean ENABLED = Boolean.getBoolean("focustrack.edtMonitor");
+    private static final long STALL_MICROS = Long.getLong("focustrack.edtStallMillis", 50) * 1000;
+    private static EdtStallMonitor installed;
+
+    private final LatencyHistogram dispatchTimes = new LatencyHistogram();
+
+    private EdtStallMonitor() {
+    }
+
+    /**
+     * Replace the system event queue with a monitor, if enabled
+     */
+    static synchronized void installIfEnabled() {
+        if (ENABLED && installed == null) {
+            installed = new EdtStallMonitor();
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed);
+        }
+    }
+
+    /**
+     * Print the dispatch time summary, if the monitor is installed
+     */
+    static synchronized void report() {
+        if (installed != null) {
+            System.err.println("EDT dispatch times (us): " + installed.dispatchTimes);
+        }
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long micros = (System.nanoTime() - start) / 1000;
+            dispatchTimes.record(micros);
+            if (micros >= STALL_MICROS) {
+                System.err.println("EDT stall: " + micros / 1000 + " ms in " + describe(event));
+            }
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        if (event instanceof InvocationEvent) {
+            // Invocation events all look alike; their runnable says where they came from
+            return event.paramString();
+        }
+        return event.getClass().getSimpleName() + " #" + event.getID() + " on " + event.getSource().getClass().getSimpleName();
+    }
+}
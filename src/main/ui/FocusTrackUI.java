@@ -8,10 +8,20 @@ import main.timer.*;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Swing UI for the FocusTrack application
@@ -20,38 +30,63 @@ public class FocusTrackUI extends JFrame {
     private static final String APP_TITLE = "FocusTrack";
     private static final int WIDTH = 450;
     private static final int HEIGHT = 600;
+    private static final int FILTER_DELAY_MS = 40;     // Wait for a pause in typing before filtering
+    private static final int FILTER_CHUNK_SIZE = 4096; // Tasks scanned per streamed batch of results
+    private static final int TICK_SLACK_MS = 10;       // Frame after a tick waits this long for it to land
     
     // Main components
     private TaskManager taskManager;
     private TimerManager timerManager;
     private SoundManager soundManager;
+    private TimerStrategyRegistry strategyRegistry;
     
     // UI components
-    private JLabel timerLabel;
-    private JProgressBar progressBar;
+    private CountdownDisplay countdown;
     private JButton startButton;
     private JButton pauseButton;
     private JButton addTaskButton;
     private JButton completeTaskButton;
     private JButton resetButton;
     private JButton changeStrategyButton;
-    private JPanel taskListPanel;
+    private JLabel statusLabel;
+    private JTextField filterField;
+    private Timer filterDelay;
+    private FilterWorker filterWorker; // Search in progress, if any
+    private JList<Task> taskList;
+    private TaskListModel taskListModel;
     private Task currentTask;
     private TimerStrategy currentStrategy;
     private TaskTimer activeTimer;
+    private RefreshLoop refreshLoop;
+    // Last remaining time read from the timer, and when, so the bar can move between ticks
+    private TaskTimer observedTimer;
+    private long observedRemainingMillis;
+    private long observedAtNanos;
+    private boolean loaded; // Set once tasks and timers are loaded
+    
+    // Storage I/O runs off the EDT, one write at a time; a burst of changes
+    // is written once, from the latest snapshot
+    private final ExecutorService storageExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-storage");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<List<Task>> pendingSave = new AtomicReference<>();
     
     public FocusTrackUI() {
         super(APP_TITLE);
         
-        // Initialize managers
-        taskManager = TaskManager.getInstance();
-        timerManager = TimerManager.getInstance();
+        // Tasks, timers and strategies are loaded in the background once the window is up
         soundManager = SoundManager.getInstance();
         
-        // Default timer strategy
-        currentStrategy = new PomodoroTimer();
-        
         initUI();
+        setLoading(true);
+        
+        // One capped refresh loop keeps the timer display current, slowing
+        // down while the window is inactive and stopping while it is hidden
+        refreshLoop = new RefreshLoop(RefreshLoop.configuredFps(), RefreshLoop.configuredBackgroundFps(),
+                this::refreshTimerDisplay, this::resynchronize);
+        refreshLoop.attach(this);
         
         // Window closing handler
         addWindowListener(new WindowAdapter() {
@@ -99,14 +134,9 @@ public class FocusTrackUI extends JFrame {
         changeStrategyButton.addActionListener(e -> changeTimerStrategy());
         changeStrategyButton.setEnabled(false);
         
-        // Timer display
-        timerLabel = new JLabel("25:00", JLabel.CENTER);
-        timerLabel.setFont(new Font("SansSerif", Font.BOLD, 80));
-        
-        // Progress bar
-        progressBar = new JProgressBar(0, 100);
-        progressBar.setValue(0);
-        progressBar.setPreferredSize(new Dimension(WIDTH - 50, 15));
+        // Timer display: countdown digits over the phase progress bar
+        countdown = new CountdownDisplay(WIDTH - 50);
+        countdown.setSeconds(25 * 60);
         
         // Buttons panel
         JPanel buttonsPanel = new JPanel();
@@ -130,8 +160,7 @@ public class FocusTrackUI extends JFrame {
         buttonsPanel.add(resetButton);
         buttonsPanel.add(changeStrategyButton);
 
-        panel.add(timerLabel, BorderLayout.NORTH);
-        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(countdown, BorderLayout.CENTER);
         panel.add(buttonsPanel, BorderLayout.SOUTH);
         
         return panel;
@@ -153,7 +182,7 @@ public class FocusTrackUI extends JFrame {
             
             // Update UI
             updateTimerUI();
-            updateTaskList();
+            taskListModel.taskChanged(currentTask);
         }
     }
     
@@ -166,12 +195,51 @@ public class FocusTrackUI extends JFrame {
         JLabel tasksHeader = new JLabel("Tasks");
         tasksHeader.setFont(new Font("SansSerif", Font.BOLD, 16));
         
-        // Task list panel with scroll
-        taskListPanel = new JPanel();
-        taskListPanel.setLayout(new BoxLayout(taskListPanel, BoxLayout.Y_AXIS));
-        taskListPanel.setBackground(Color.WHITE);
+        // Filter box: each pause in typing starts a new background search
+        filterField = new JTextField();
+        filterField.setToolTipText("Filter by title or description; also status:pending, status:completed, pomodoros>2");
+        filterDelay = new Timer(FILTER_DELAY_MS, e -> applyFilter());
+        filterDelay.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterDelay.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterDelay.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterDelay.restart();
+            }
+        });
+        
+        JPanel headerPanel = new JPanel(new BorderLayout(10, 0));
+        headerPanel.setOpaque(false);
+        headerPanel.add(tasksHeader, BorderLayout.WEST);
+        headerPanel.add(filterField, BorderLayout.CENTER);
+        
+        // Task list with scroll; only the visible rows are painted
+        taskListModel = new TaskListModel();
+        taskList = new JList<>(taskListModel);
+        taskList.setCellRenderer(new TaskCellRenderer(() -> timerManager));
+        // Fixed cell size so the list never measures every row
+        taskList.setFixedCellHeight(TaskCellRenderer.ROW_HEIGHT);
+        taskList.setFixedCellWidth(WIDTH - 100);
+        taskList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        taskList.setFocusable(false);
+        taskList.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        taskList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseReleased(MouseEvent evt) {
+                taskRowClicked(evt.getPoint());
+            }
+        });
         
-        JScrollPane scrollPane = new JScrollPane(taskListPanel);
+        JScrollPane scrollPane = new JScrollPane(taskList);
         scrollPane.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         
@@ -190,110 +258,45 @@ public class FocusTrackUI extends JFrame {
         actionPanel.add(completeTaskButton);
         
         // Add to task panel
-        panel.add(tasksHeader, BorderLayout.NORTH);
-        panel.add(scrollPane, BorderLayout.CENTER);
-        panel.add(actionPanel, BorderLayout.SOUTH);
+        panel.add(headerPanel, BorderLayout.NORTH);
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
+        statusLabel.setForeground(Color.GRAY);
+        
+        JPanel southPanel = new JPanel(new BorderLayout(0, 5));
+        southPanel.setOpaque(false);
+        southPanel.add(actionPanel, BorderLayout.CENTER);
+        southPanel.add(statusLabel, BorderLayout.SOUTH);
         
-        // Populate task list
-        updateTaskList();
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(southPanel, BorderLayout.SOUTH);
         
         return panel;
     }
     
-    private void updateTaskList() {
-        taskListPanel.removeAll();
-        List<Task> tasks = taskManager.getTasks();
-        
-        for (Task task : tasks) {
-            JPanel taskItem = createTaskItem(task);
-            taskListPanel.add(taskItem);
+    // Select the clicked task, or delete it if the click was on its × mark
+    private void taskRowClicked(Point point) {
+        int index = taskList.locationToIndex(point);
+        Rectangle bounds = index >= 0 ? taskList.getCellBounds(index, index) : null;
+        if (bounds != null && bounds.contains(point)) {
+            Task task = taskListModel.getElementAt(index);
+            if (point.x >= bounds.x + bounds.width - TaskCellRenderer.DELETE_WIDTH) {
+                deleteTask(task);
+            } else {
+                selectTask(task);
+            }
         }
-        
-        taskListPanel.revalidate();
-        taskListPanel.repaint();
+        syncTaskSelection();
     }
     
-    private JPanel createTaskItem(Task task) {
-        JPanel panel = new JPanel();
-        panel.setLayout(new BorderLayout(10, 0));
-        panel.setBorder(BorderFactory.createEmptyBorder(10, 5, 10, 5));
-        panel.setMaximumSize(new Dimension(WIDTH - 50, 40));
-        panel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        
-        // Set background for already selected task
-        if (currentTask != null && task.equals(currentTask)) {
-            panel.setBackground(new Color(240, 240, 255));
+    // Keep the list's selection on the current task
+    private void syncTaskSelection() {
+        int index = currentTask != null ? taskListModel.indexOf(currentTask) : -1;
+        if (index >= 0) {
+            taskList.setSelectedIndex(index);
         } else {
-            panel.setBackground(UIManager.getColor("Panel.background"));
-        }
-        
-        // Task details
-        String title = task.getTitle();
-        
-        // Add indicator for active timer
-        if (timerManager.getTimerForTask(task) != null) {
-            TaskTimer taskTimer = timerManager.getTimerForTask(task);
-            String runningIndicator = taskTimer.isRunning() ? "▶️" : "⏸️";
-            title = runningIndicator + " " + title;
-        }
-        
-        JPanel taskInfoPanel = new JPanel(new BorderLayout(5, 3));
-        taskInfoPanel.setOpaque(false);
-        
-        JLabel taskTitle = new JLabel(title);
-        taskTitle.setFont(new Font("SansSerif", Font.BOLD, 16));
-        
-        // Add description if it exists
-        String desc = task.getDescription();
-        JLabel taskDesc = null;
-        if (desc != null && !desc.trim().isEmpty()) {
-            taskDesc = new JLabel(desc);
-            taskDesc.setFont(new Font("SansSerif", Font.ITALIC, 12));
-            taskDesc.setForeground(Color.DARK_GRAY);
+            taskList.clearSelection();
         }
-        
-        taskInfoPanel.add(taskTitle, BorderLayout.NORTH);
-        if (taskDesc != null) {
-            taskInfoPanel.add(taskDesc, BorderLayout.SOUTH);
-        }
-        
-        // Add to main panel
-        panel.add(taskInfoPanel, BorderLayout.CENTER);
-        
-        // Task status
-        String statusText = (task.getStatus() == TaskStatus.COMPLETED) ? "Completed" : "Pending";
-        JLabel taskStatus = new JLabel(statusText);
-        taskStatus.setForeground(task.getStatus() == TaskStatus.COMPLETED ? new Color(100, 150, 100) : Color.GRAY);
-        
-        // Delete button
-        JButton deleteButton = new JButton("×");
-        deleteButton.setFont(new Font("SansSerif", Font.BOLD, 16));
-        deleteButton.setForeground(Color.RED);
-        deleteButton.setBorderPainted(false);
-        deleteButton.setContentAreaFilled(false);
-        deleteButton.setFocusPainted(false);
-        deleteButton.addActionListener(e -> deleteTask(task));
-        
-        // Add components to panel
-        panel.add(taskTitle, BorderLayout.WEST);
-        
-        JPanel rightPanel = new JPanel(new BorderLayout(5, 0));
-        rightPanel.setOpaque(false);
-        rightPanel.add(taskStatus, BorderLayout.CENTER);
-        rightPanel.add(deleteButton, BorderLayout.EAST);
-        
-        panel.add(rightPanel, BorderLayout.EAST);
-        
-        // Make task selectable
-        panel.addMouseListener(new java.awt.event.MouseAdapter() {
-            @Override
-            public void mouseClicked(java.awt.event.MouseEvent evt) {
-                selectTask(task);
-                updateTaskList(); // Update the entire list to reflect selection
-            }
-        });
-        
-        return panel;
     }
     
     private void deleteTask(Task task) {
@@ -318,15 +321,16 @@ public class FocusTrackUI extends JFrame {
                         startButton.setEnabled(true);
                         pauseButton.setEnabled(false);
                         resetButton.setEnabled(false);
-                        progressBar.setValue(0);
-                        timerLabel.setText(formatTime(currentStrategy.getTotalWorkSeconds()));
+                        countdown.setProgress(0);
+                        countdown.setSeconds(currentStrategy.getTotalWorkSeconds());
                         currentTask = null;
                     }
                 }
                 
                 // Delete the task
                 taskManager.deleteTask(index);
-                updateTaskList();
+                taskListModel.taskRemoved(task);
+                saveInBackground();
             }
         }
     }
@@ -374,15 +378,13 @@ public class FocusTrackUI extends JFrame {
                 resetButton.setEnabled(true);
                 
                 // Update display
-                timerLabel.setText(formatTime(activeTimer.getRemainingSeconds()));
+                countdown.setSeconds(activeTimer.getRemainingSeconds());
                 
                 // Update progress bar based on current phase
-                int totalSeconds = activeTimer.isWorkPhase() ? 
-                    activeTimer.getStrategy().getTotalWorkSeconds() :
-                    activeTimer.getStrategy().getTotalBreakSeconds();
+                int totalSeconds = activeTimer.getPhaseDurationSeconds();
                 
                 double progress = 1.0 - ((double) activeTimer.getRemainingSeconds() / totalSeconds);
-                progressBar.setValue((int) (progress * 100));
+                countdown.setProgress(progress);
             } else {
                 // Timer exists but is paused
                 startButton.setEnabled(true);
@@ -391,7 +393,7 @@ public class FocusTrackUI extends JFrame {
                 resetButton.setEnabled(true);
                 
                 // Update display
-                timerLabel.setText(formatTime(activeTimer.getRemainingSeconds()));
+                countdown.setSeconds(activeTimer.getRemainingSeconds());
             }
         } else {
             // No timer for this task
@@ -401,11 +403,14 @@ public class FocusTrackUI extends JFrame {
             resetButton.setEnabled(false);
             
             // Reset timer display to strategy default
-            timerLabel.setText(formatTime(currentStrategy.getTotalWorkSeconds()));
-            progressBar.setValue(0);
+            countdown.setSeconds(currentStrategy.getTotalWorkSeconds());
+            countdown.setProgress(0);
         }
 
         changeStrategyButton.setEnabled(currentTask != null);
+        if (refreshLoop != null) {
+            refreshLoop.wake(); // A delayed frame may have been timed for a different timer or state
+        }
     }
     
     private void startTimer() {
@@ -434,7 +439,7 @@ public class FocusTrackUI extends JFrame {
             pauseButton.setText("Pause Timer");
             resetButton.setEnabled(true);
             
-            updateTaskList(); // Update task list to show the timer is running
+            taskListModel.taskChanged(currentTask); // Update task list to show the timer is running
             return;
         }
         
@@ -448,36 +453,28 @@ public class FocusTrackUI extends JFrame {
         activeTimer = timerManager.startTimer(currentTask, currentStrategy);
         
         // Setup timer listener
-        activeTimer.setListener(new TaskTimer.TimerListener() {
+        activeTimer.setListener(createTimerListener(activeTimer));
+        
+        // Update task list to show the timer is running
+        taskListModel.taskChanged(currentTask);
+    }
+    
+    // Listener that keeps the UI in sync with one task's timer
+    private TaskTimer.TimerListener createTimerListener(final TaskTimer timer) {
+        return new TaskTimer.TimerListener() {
             @Override
             public void onTick(int seconds) {
-                SwingUtilities.invokeLater(() -> {
-                    // Only update if this is still the current task
-                    if (currentTask != null && currentTask.equals(activeTimer.getTask())) {
-                        // Update timer display
-                        timerLabel.setText(formatTime(seconds));
-                        
-                        // Update progress bar
-                        int totalSeconds = activeTimer.isWorkPhase() ? 
-                            activeTimer.getStrategy().getTotalWorkSeconds() :
-                            activeTimer.getStrategy().getTotalBreakSeconds();
-                        
-                        double progress = 1.0 - ((double) seconds / totalSeconds);
-                        progressBar.setValue((int) (progress * 100));
-                    }
-                    
-                    // Always update the task list to show running timers
-                    updateTaskList();
-                });
+                // Nothing to do: the refresh loop reads the timer's state each frame
             }
             
             @Override
             public void onPhaseComplete(boolean wasWorkPhase) {
                 SwingUtilities.invokeLater(() -> {
-                    Task timerTask = activeTimer.getTask();
+                    Task timerTask = timer.getTask();
                     if (wasWorkPhase) {
                         // Work phase complete
                         timerTask.incrementPomodoros();
+                        saveInBackground();
                         soundManager.playSound(SoundManager.SoundType.WORK_COMPLETE);
                         
                         String taskName = timerTask.getTitle();
@@ -500,14 +497,14 @@ public class FocusTrackUI extends JFrame {
                     }
                     
                     // Update task list
-                    updateTaskList();
+                    taskListModel.taskChanged(timerTask);
                 });
             }
             
             @Override
             public void onTimerComplete() {
                 SwingUtilities.invokeLater(() -> {
-                    Task timerTask = activeTimer.getTask();
+                    Task timerTask = timer.getTask();
                     soundManager.playSound(SoundManager.SoundType.TIMER_COMPLETE);
                     
                     // Update UI if this is still the current task
@@ -515,7 +512,7 @@ public class FocusTrackUI extends JFrame {
                         startButton.setEnabled(true);
                         pauseButton.setEnabled(false);
                         resetButton.setEnabled(false);
-                        progressBar.setValue(100);
+                        countdown.setProgress(1);
                     }
                     
                     // Ask if task is complete
@@ -529,13 +526,10 @@ public class FocusTrackUI extends JFrame {
                     }
                     
                     // Update the task list
-                    updateTaskList();
+                    taskListModel.taskChanged(timerTask);
                 });
             }
-        });
-        
-        // Update task list to show the timer is running
-        updateTaskList();
+        };
     }
     
     private void pauseTimer() {
@@ -560,7 +554,7 @@ public class FocusTrackUI extends JFrame {
             }
             
             // Update task list to reflect timer state change
-            updateTaskList();
+            taskListModel.taskChanged(currentTask);
         } else {
             JOptionPane.showMessageDialog(this, "No active timer for the selected task.", 
                 "No Timer", JOptionPane.WARNING_MESSAGE);
@@ -580,13 +574,13 @@ public class FocusTrackUI extends JFrame {
             timerManager.resetTimer(currentTask);
             
             // Update UI
-            timerLabel.setText(formatTime(timer.getRemainingSeconds()));
+            countdown.setSeconds(timer.getRemainingSeconds());
             
             // Update progress bar
-            progressBar.setValue(0);
+            countdown.setProgress(0);
             
             // Update task list
-            updateTaskList();
+            taskListModel.taskChanged(currentTask);
         } else {
             JOptionPane.showMessageDialog(this, "No active timer to reset.", 
                 "No Timer", JOptionPane.WARNING_MESSAGE);
@@ -600,7 +594,6 @@ public class FocusTrackUI extends JFrame {
         }
         
         completeTask(currentTask);
-        updateTaskList();
     }
     
     private void completeTask(Task task) {
@@ -620,10 +613,12 @@ public class FocusTrackUI extends JFrame {
         // Reset current task if it was the completed one
         if (task.equals(currentTask)) {
             currentTask = null;
+            taskList.clearSelection();
         }
         
         // Update task list
-        updateTaskList();
+        taskListModel.taskChanged(task);
+        saveInBackground();
     }
     
     private void showAddTaskDialog() {
@@ -642,7 +637,8 @@ public class FocusTrackUI extends JFrame {
         if (result == JOptionPane.OK_OPTION && !titleField.getText().trim().isEmpty()) {
             Task newTask = new Task(titleField.getText().trim(), descField.getText().trim());
             taskManager.addTask(newTask);
-            updateTaskList();
+            taskListModel.taskAdded(newTask);
+            saveInBackground();
         }
     }
     
@@ -657,17 +653,66 @@ public class FocusTrackUI extends JFrame {
         }
     }
 
-    private String formatTime(int seconds) {
-        int minutes = seconds / 60;
-        int secs = seconds % 60;
-        return String.format("%02d:%02d", minutes, secs);
+    // Called by the refresh loop on every frame
+    private void refreshTimerDisplay() {
+        TaskTimer timer = getCurrentTaskTimer();
+        if (timer == null || !timer.isRunning()) {
+            // Idle and paused displays are set when the state changes
+            refreshLoop.delayNextFrame(RefreshLoop.MAX_FRAME_DELAY_MILLIS);
+            return;
+        }
+        // Volatile reads only; a strategy change can leave the index briefly out of range
+        PhaseSchedule schedule = timer.getPhaseSchedule();
+        int phase = timer.getPhaseIndex();
+        long remainingMillis = timer.getRemainingMillis();
+        if (phase >= schedule.getPhaseCount()) {
+            return;
+        }
+        countdown.setSeconds((int) ((remainingMillis + 999) / 1000));
+        
+        // The timer only updates on ticks; between them, count down from the
+        // last tick, but never past where the next tick will put it
+        long now = System.nanoTime();
+        if (timer != observedTimer || remainingMillis != observedRemainingMillis) {
+            observedTimer = timer;
+            observedRemainingMillis = remainingMillis;
+            observedAtNanos = now;
+        }
+        long sinceTick = Math.min((now - observedAtNanos) / 1_000_000, schedule.getTickMillis());
+        long phaseMillis = schedule.getPhaseDurationMillis(phase);
+        countdown.setProgress(1.0 - (double) Math.min(remainingMillis - sinceTick, phaseMillis) / phaseMillis);
+        
+        // Nothing visible changes before the next tick (the digits) or the
+        // bar's next pixel, whichever comes first. Only a phase short enough
+        // for the bar to move a pixel per frame gets the full frame rate; a
+        // 25-minute phase moves a pixel every few seconds, so its frames
+        // follow the once-a-second ticks.
+        long untilTick = timer.getNextTickMillis() - timer.getScheduler().currentTimeMillis() + TICK_SLACK_MS;
+        long millisPerPixel = phaseMillis / Math.max(1, countdown.getBarWidth());
+        refreshLoop.delayNextFrame(Math.min(untilTick, millisPerPixel));
+    }
+    
+    // Called when the window is shown again after being minimized or hidden;
+    // phase boundaries were still handled meanwhile, but nothing was painted
+    private void resynchronize() {
+        if (!loaded) {
+            return;
+        }
+        observedTimer = null; // Interpolate from the timer's latest tick, not from before
+        updateTimerUI();
+        taskListModel.allRowsChanged();
     }
     
     private void showTimerStrategyDialog() {
+        if (!loaded) {
+            return; // Strategies are still loading
+        }
         String[] options = {
             "Pomodoro (25 min work, 5 min break)",
             "Short Break (15 min work, 3 min break)",
             "Long Break (50 min work, 10 min break)",
+            "Pomodoro Session (4x 25/5 min, then 15 min long break)",
+            "Saved Timer",
             "Custom Timer"
         };
         
@@ -682,22 +727,52 @@ public class FocusTrackUI extends JFrame {
         
         switch (choice) {
             case 0:
-                currentStrategy = new PomodoroTimer();
+                currentStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.POMODORO);
                 break;
             case 1:
-                currentStrategy = new ShortBreakTimer();
+                currentStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.SHORT_BREAK);
                 break;
             case 2:
-                currentStrategy = new LongBreakTimer();
+                currentStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.LONG_BREAK);
                 break;
             case 3:
+                currentStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.POMODORO_SESSION);
+                break;
+            case 4:
+                showSavedTimerDialog();
+                break;
+            case 5:
                 showCustomTimerDialog();
                 break;
         }
         
         // Update timer display to reflect new strategy
-        if (choice >= 0 && choice <= 2) {
-            timerLabel.setText(String.format("%02d:00", currentStrategy.getWorkDuration()));
+        if (choice >= 0 && choice <= 3) {
+            countdown.setSeconds(currentStrategy.getTotalWorkSeconds());
+        }
+    }
+    
+    private void showSavedTimerDialog() {
+        List<ImmutableTimerStrategy> saved = strategyRegistry.getCustomStrategies();
+        if (saved.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No saved timers yet. Create a custom timer first.",
+                "Saved Timer", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        
+        String[] names = new String[saved.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = saved.get(i).getName();
+        }
+        
+        Object selected = JOptionPane.showInputDialog(this, "Select a saved timer:", "Saved Timer",
+            JOptionPane.QUESTION_MESSAGE, null, names, names[0]);
+        if (selected != null) {
+            TimerStrategy strategy = strategyRegistry.getStrategy((String) selected);
+            if (strategy != null) {
+                currentStrategy = strategy;
+                countdown.setSeconds(currentStrategy.getTotalWorkSeconds());
+            }
         }
     }
     
@@ -761,10 +836,12 @@ public class FocusTrackUI extends JFrame {
                     breakMinutes,
                     breakSeconds
                 );
+                // Keep it so it can be picked again later
+                strategyRegistry.register(currentStrategy);
                 
                 // Update timer display
                 int totalSeconds = currentStrategy.getTotalWorkSeconds();
-                timerLabel.setText(formatTime(totalSeconds));
+                countdown.setSeconds(totalSeconds);
                 
             } catch (IllegalArgumentException e) {
                 JOptionPane.showMessageDialog(this, 
@@ -810,17 +887,184 @@ public class FocusTrackUI extends JFrame {
         }
     }
     
+    // Enable or disable everything that needs the tasks loaded
+    private void setLoading(boolean loading) {
+        startButton.setEnabled(!loading);
+        addTaskButton.setEnabled(!loading);
+        completeTaskButton.setEnabled(!loading);
+        filterField.setEnabled(!loading);
+        showStatus(loading ? "Loading tasks..." : taskManager.getTasks().size() + " tasks", false);
+    }
+    
+    // Load tasks and strategies and resume timers left running by the previous session
+    private void loadInBackground() {
+        new SwingWorker<List<TaskTimer>, Void>() {
+            @Override
+            protected List<TaskTimer> doInBackground() {
+                TimerStrategyRegistry.getInstance().startWatching();
+                TaskManager tasks = TaskManager.getInstance();
+                // Saves are made by this window, off the EDT
+                tasks.setAutoSave(false);
+                return TimerManager.getInstance().restoreTimers(tasks.getTasks());
+            }
+            
+            @Override
+            protected void done() {
+                taskManager = TaskManager.getInstance();
+                timerManager = TimerManager.getInstance();
+                strategyRegistry = TimerStrategyRegistry.getInstance();
+                currentStrategy = TimerStrategyFactory.createStrategy(TimerStrategyType.POMODORO);
+                
+                taskListModel.setTasks(taskManager.getTasks());
+                try {
+                    for (TaskTimer timer : get()) {
+                        timer.setListener(createTimerListener(timer));
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error restoring timers: " + e.getMessage());
+                }
+                loaded = true;
+                setLoading(false);
+            }
+        }.execute();
+    }
+    
+    // Show the tasks matching the filter box, searching in the background
+    private void applyFilter() {
+        if (filterWorker != null) {
+            filterWorker.cancel(true);
+            filterWorker = null;
+        }
+        TaskFilter filter = TaskFilter.parse(filterField.getText());
+        taskListModel.setFilter(filter);
+        if (filter.isEmpty()) {
+            taskListModel.setTasks(taskManager.getTasks());
+            syncTaskSelection();
+            showStatus(taskManager.getTasks().size() + " tasks", false);
+            return;
+        }
+        taskListModel.clear();
+        showStatus("Searching...", false);
+        filterWorker = new FilterWorker(filter, new ArrayList<>(taskManager.getTasks()));
+        filterWorker.execute();
+    }
+    
+    /**
+     * Scans a snapshot of the tasks and streams matches into the list as they
+     * are found; stops early when the query changes
+     */
+    private class FilterWorker extends SwingWorker<Integer, Void> {
+        private final TaskFilter filter;
+        private final List<Task> snapshot;
+        
+        FilterWorker(TaskFilter filter, List<Task> snapshot) {
+            this.filter = filter;
+            this.snapshot = snapshot;
+        }
+        
+        @Override
+        protected Integer doInBackground() {
+            int matches = 0;
+            for (int start = 0; start < snapshot.size() && !isCancelled(); start += FILTER_CHUNK_SIZE) {
+                List<Task> found = new ArrayList<>();
+                for (Task task : snapshot.subList(start, Math.min(start + FILTER_CHUNK_SIZE, snapshot.size()))) {
+                    if (filter.test(task)) {
+                        found.add(task);
+                    }
+                }
+                matches += found.size();
+                if (!found.isEmpty()) {
+                    // Straight to the EDT rather than publish(), which batches on a 30 Hz timer
+                    SwingUtilities.invokeLater(() -> {
+                        if (filterWorker == this) {
+                            // The snapshot predates the search; skip tasks deleted since
+                            found.removeIf(task -> taskManager.getTask(task.getId()) != task);
+                            taskListModel.appendTasks(found);
+                        }
+                    });
+                }
+            }
+            return matches;
+        }
+        
+        @Override
+        protected void done() {
+            if (filterWorker != this) {
+                return; // Superseded by a newer query
+            }
+            filterWorker = null;
+            syncTaskSelection();
+            try {
+                showStatus(get() + " of " + snapshot.size() + " tasks match", false);
+            } catch (InterruptedException | ExecutionException e) {
+                showStatus("Search failed: " + e.getMessage(), true);
+            }
+        }
+    }
+    
+    // Write the task list on the storage thread; the UI has already been updated
+    private void saveInBackground() {
+        if (pendingSave.getAndSet(new ArrayList<>(taskManager.getTasks())) != null) {
+            return; // The queued save will write this snapshot instead
+        }
+        showStatus("Saving...", false);
+        storageExecutor.execute(new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                List<Task> snapshot = pendingSave.getAndSet(null);
+                taskManager.saveTasks(snapshot);
+                return snapshot.size();
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    showStatus("Saved " + get() + " tasks", false);
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showStatus("Save failed: " + cause.getMessage(), true);
+                    JOptionPane.showMessageDialog(FocusTrackUI.this,
+                        "Could not save tasks: " + cause.getMessage() + "\nChanges will be saved again on exit.",
+                        "Save Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+    }
+    
+    private void showStatus(String text, boolean error) {
+        statusLabel.setText(text);
+        statusLabel.setForeground(error ? Color.RED : Color.GRAY);
+    }
+    
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        StartupTiming.firstFrameShown("window");
+    }
+    
     private void shutdown() {
-        // Clean up resources
+        // Clean up resources, checkpointing timers so they resume on next start
+        if (refreshLoop != null) {
+            refreshLoop.stop();
+        }
         if (timerManager != null) {
-            timerManager.clearAllTimers();
+            timerManager.shutdown();
         }
         if (soundManager != null) {
             soundManager.cleanup();
         }
         
-        // Save tasks before exit
-        taskManager.saveTasks();
+        // Let a save in progress finish, then save tasks before exit
+        storageExecutor.shutdown();
+        try {
+            storageExecutor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (loaded) {
+            taskManager.saveTasks();
+        }
+        EdtStallMonitor.report();
     }
     
     public static void main(String[] args) {
@@ -831,10 +1075,15 @@ public class FocusTrackUI extends JFrame {
             e.printStackTrace();
         }
         
+        EdtStallMonitor.installIfEnabled();
+        
         // Launch UI
         SwingUtilities.invokeLater(() -> {
             FocusTrackUI ui = new FocusTrackUI();
             ui.setVisible(true);
+            ui.loadInBackground();
+            // Load sounds in the background now that the window is up
+            SoundManager.getInstance().prefetch();
             
             // Add menu bar
             JMenuBar menuBar = new JMenuBar();
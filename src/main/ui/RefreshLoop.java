@@ -0,0 +1,228 @@
+package main.ui;
+
+import javax.swing.Timer;
+import java.awt.EventQueue;
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Runs a UI refresh on the EDT at a capped frame rate
+ * Replaces one invokeLater per timer tick: however many timers are running,
+ * the EDT gets at most one refresh per frame, and the refresh reads timer
+ * state directly instead of being told about every change. The rate follows
+ * the window: full rate while it (or one of its dialogs) is active, a low
+ * background rate while it is showing but inactive - behind other windows or
+ * on another virtual desktop, which Java can't tell apart - and no frames at
+ * all while it is minimized or hidden. On coming back from hidden the window
+ * is resynchronized once before the loop starts again. The rates can be set
+ * with -Dfocustrack.ui.fps (default 60) and -Dfocustrack.ui.backgroundFps
+ * (default 2); frames in which nothing visible changed do no painting. The
+ * rate is only a maximum: a refresh that knows nothing will change for a
+ * while can delay the next frame (delayNextFrame).
+ */
+class RefreshLoop {
+    static final int DEFAULT_FPS = 60;
+    static final int DEFAULT_BACKGROUND_FPS = 2;
+    static final int MAX_FPS = 120;
+    static final int MAX_FRAME_DELAY_MILLIS = 1000;
+
+    /**
+     * How much of the window the user can see
+     */
+    enum State {
+        FOREGROUND, // Active: refresh at the full rate
+        BACKGROUND, // Showing but inactive: refresh at the background rate
+        HIDDEN      // Minimized or hidden: don't refresh
+    }
+
+    private final Timer frameTimer;
+    private final Runnable refresh;
+    private final Runnable resync;
+    private final int foregroundDelay;
+    private final int backgroundDelay;
+    private State state = State.HIDDEN;
+    private long frameCount;
+    private int requestedDelay; // Set by the refresh to delay the next frame; 0 for the regular rate
+
+    /**
+     * @param fps Refreshes per second while the window is active, at most MAX_FPS
+     * @param backgroundFps Refreshes per second while it is showing but inactive
+     * @param refresh Called on the EDT once per frame
+     * @param resync Called on the EDT when the window is shown again after
+     *               being hidden, before the first frame
+     */
+    RefreshLoop(int fps, int backgroundFps, Runnable refresh, Runnable resync) {
+        if (fps <= 0 || backgroundFps <= 0) {
+            throw new IllegalArgumentException("Frame rate must be positive");
+        }
+        this.refresh = refresh;
+        this.resync = resync;
+        foregroundDelay = 1000 / Math.min(fps, MAX_FPS);
+        backgroundDelay = 1000 / Math.min(backgroundFps, MAX_FPS);
+        frameTimer = new Timer(foregroundDelay, e -> frame());
+        frameTimer.setCoalesce(true); // A slow frame is skipped, not queued up
+    }
+
+    /**
+     * Frame rate from -Dfocustrack.ui.fps
+     */
+    static int configuredFps() {
+        int fps = Integer.getInteger("focustrack.ui.fps", DEFAULT_FPS);
+        return Math.max(1, Math.min(fps, MAX_FPS));
+    }
+
+    /**
+     * Frame rate while inactive, from -Dfocustrack.ui.backgroundFps
+     */
+    static int configuredBackgroundFps() {
+        int fps = Integer.getInteger("focustrack.ui.backgroundFps", DEFAULT_BACKGROUND_FPS);
+        return Math.max(1, Math.min(fps, MAX_FPS));
+    }
+
+    /**
+     * Follow the frame's visibility and activation
+     */
+    void attach(Frame window) {
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                update(window);
+            }
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                update(window);
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                update(window);
+            }
+
+            @Override
+            public void windowActivated(WindowEvent e) {
+                update(window);
+            }
+
+            @Override
+            public void windowDeactivated(WindowEvent e) {
+                // Focus may be moving to one of our own dialogs; decide once it has arrived
+                EventQueue.invokeLater(() -> update(window));
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                setState(State.HIDDEN);
+            }
+        });
+        window.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                update(window);
+            }
+
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                update(window);
+            }
+        });
+        update(window);
+    }
+
+    State getState() {
+        return state;
+    }
+
+    /**
+     * Switch to the frame rate for a state, resynchronizing when leaving HIDDEN
+     */
+    void setState(State newState) {
+        State previous = state;
+        state = newState;
+        if (newState == State.HIDDEN) {
+            frameTimer.stop();
+            return;
+        }
+        if (previous == State.HIDDEN) {
+            resync.run();
+        }
+        int delay = newState == State.FOREGROUND ? foregroundDelay : backgroundDelay;
+        if (!frameTimer.isRunning() || frameTimer.getDelay() != delay) {
+            frameTimer.setDelay(delay);
+            frameTimer.setInitialDelay(delay);
+            frame(); // Catch up at once rather than one frame later
+            frameTimer.restart();
+        }
+    }
+
+    void stop() {
+        setState(State.HIDDEN);
+    }
+
+    boolean isRunning() {
+        return frameTimer.isRunning();
+    }
+
+    long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Skip frames until about this many milliseconds from now, at most
+     * MAX_FRAME_DELAY_MILLIS; only honoured if called from the refresh, and
+     * only when longer than the regular frame time. The frame after that is
+     * back at the regular rate unless its refresh asks again.
+     */
+    void delayNextFrame(long millis) {
+        requestedDelay = (int) Math.min(millis, MAX_FRAME_DELAY_MILLIS);
+    }
+
+    /**
+     * Cancel a delay asked for by the last refresh, e.g. because the display
+     * now shows a different timer; the next frame comes at the regular rate
+     */
+    void wake() {
+        if (frameTimer.isRunning() && frameTimer.getInitialDelay() > frameTimer.getDelay()) {
+            frameTimer.setInitialDelay(frameTimer.getDelay());
+            frameTimer.restart();
+        }
+    }
+
+    private void update(Frame window) {
+        if (!window.isShowing() || (window.getExtendedState() & Frame.ICONIFIED) != 0) {
+            setState(State.HIDDEN);
+        } else {
+            setState(isActive(window) ? State.FOREGROUND : State.BACKGROUND);
+        }
+    }
+
+    // The window is active, or one of its dialogs (which deactivates the window itself) is
+    private static boolean isActive(Window window) {
+        if (window.isActive()) {
+            return true;
+        }
+        for (Window owned : window.getOwnedWindows()) {
+            if (owned.isShowing() && isActive(owned)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void frame() {
+        frameCount++;
+        requestedDelay = 0;
+        refresh.run();
+        int regularDelay = frameTimer.getDelay();
+        if (requestedDelay > regularDelay) {
+            frameTimer.setInitialDelay(requestedDelay);
+            frameTimer.restart();
+        } else {
+            frameTimer.setInitialDelay(regularDelay); // Already repeating at the regular rate
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package main.ui;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reports how long the application took to show its first frame
+ * Measured from JVM start; printed once when run with -Dfocustrack.startupTiming=true
+ */
+final class StartupTiming {
+    private static final boolean ENABLED = Boolean.getBoolean("focustrack.startupTiming");
+    private static boolean reported;
+
+    private StartupTiming() {
+    }
+
+    static synchronized void firstFrameShown(String ui) {
+        if (!ENABLED || reported) {
+            return;
+        }
+        reported = true;
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.err.println("Startup: first " + ui + " frame after " + millis + " ms");
+    }
+}
@@ -0,0 +1,82 @@
+package main.ui;
+
+import main.model.Task;
+import main.model.TaskStatus;
+import main.timer.TaskTimer;
+import main.timer.TimerManager;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Supplier;
+
+/**
+ * Paints one row of the task list
+ * A single set of components is reused for every row, so memory does not
+ * grow with the number of tasks and only rows on screen are ever laid out.
+ */
+class TaskCellRenderer extends JPanel implements ListCellRenderer<Task> {
+    static final int ROW_HEIGHT = 52;
+    static final int DELETE_WIDTH = 32; // Clicks this close to the right edge delete the task
+
+    private static final Color SELECTED_BACKGROUND = new Color(240, 240, 255);
+    private static final Color COMPLETED_COLOR = new Color(100, 150, 100);
+
+    private final Supplier<TimerManager> timerManager; // Gives null until the timers are loaded
+    private final JLabel titleLabel = new JLabel();
+    private final JLabel descLabel = new JLabel();
+    private final JLabel statusLabel = new JLabel();
+    private final JLabel deleteLabel = new JLabel("×", JLabel.CENTER);
+
+    /**
+     * @param timerManager Gives the timers to mark running and paused tasks
+     *                     with, or null while they are still loading
+     */
+    TaskCellRenderer(Supplier<TimerManager> timerManager) {
+        super(new BorderLayout(10, 0));
+        this.timerManager = timerManager;
+        setBorder(BorderFactory.createEmptyBorder(6, 5, 6, 5));
+
+        titleLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
+        descLabel.setFont(new Font("SansSerif", Font.ITALIC, 12));
+        descLabel.setForeground(Color.DARK_GRAY);
+        deleteLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
+        deleteLabel.setForeground(Color.RED);
+        deleteLabel.setPreferredSize(new Dimension(DELETE_WIDTH - 5, ROW_HEIGHT));
+
+        JPanel infoPanel = new JPanel(new BorderLayout(5, 3));
+        infoPanel.setOpaque(false);
+        infoPanel.add(titleLabel, BorderLayout.NORTH);
+        infoPanel.add(descLabel, BorderLayout.SOUTH);
+
+        JPanel rightPanel = new JPanel(new BorderLayout(5, 0));
+        rightPanel.setOpaque(false);
+        rightPanel.add(statusLabel, BorderLayout.CENTER);
+        rightPanel.add(deleteLabel, BorderLayout.EAST);
+
+        add(infoPanel, BorderLayout.CENTER);
+        add(rightPanel, BorderLayout.EAST);
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Task> list, Task task, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        String title = task.getTitle();
+        // Add indicator for active timer
+        TimerManager timers = timerManager.get();
+        TaskTimer timer = timers != null ? timers.getTimerForTask(task) : null;
+        if (timer != null) {
+            title = (timer.isRunning() ? "▶️" : "⏸️") + " " + title;
+        }
+        titleLabel.setText(title);
+
+        String desc = task.getDescription();
+        descLabel.setText(desc != null ? desc : "");
+
+        boolean completed = task.getStatus() == TaskStatus.COMPLETED;
+        statusLabel.setText(completed ? "Completed" : "Pending");
+        statusLabel.setForeground(completed ? COMPLETED_COLOR : Color.GRAY);
+
+        setBackground(isSelected ? SELECTED_BACKGROUND : list.getBackground());
+        return this;
+    }
+}
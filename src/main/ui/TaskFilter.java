@@ -0,0 +1,140 @@
+package main.ui;
+
+import main.model.Task;
+import main.model.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Task filter parsed from the text typed in the filter box
+ * Words are matched, case-insensitively, against a task's title or
+ * description; every word must match. Two kinds of terms narrow further:
+ *   status:pending, status:completed
+ *   pomodoros>2, pomodoros:3, pomodoros<=1 (operators : = < <= > >=)
+ */
+final class TaskFilter implements Predicate<Task> {
+    static final TaskFilter ALL = new TaskFilter("", new String[0], null, null);
+
+    private final String query;
+    private final String[] words;
+    private final TaskStatus status;      // null for any status
+    private final IntPredicate pomodoros; // null for any count
+
+    private TaskFilter(String query, String[] words, TaskStatus status, IntPredicate pomodoros) {
+        this.query = query;
+        this.words = words;
+        this.status = status;
+        this.pomodoros = pomodoros;
+    }
+
+    /**
+     * Parse a filter; terms that don't parse are matched as plain words
+     */
+    static TaskFilter parse(String query) {
+        String trimmed = query.trim();
+        if (trimmed.isEmpty()) {
+            return ALL;
+        }
+        List<String> words = new ArrayList<>();
+        TaskStatus status = null;
+        IntPredicate pomodoros = null;
+        for (String term : trimmed.split("\\s+")) {
+            String lower = term.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("status:") && parseStatus(lower.substring(7)) != null) {
+                status = parseStatus(lower.substring(7));
+            } else if (lower.startsWith("pomodoros") && parseCount(lower.substring(9)) != null) {
+                IntPredicate count = parseCount(lower.substring(9));
+                pomodoros = pomodoros == null ? count : pomodoros.and(count);
+            } else {
+                words.add(term);
+            }
+        }
+        return new TaskFilter(trimmed, words.toArray(new String[0]), status, pomodoros);
+    }
+
+    boolean isEmpty() {
+        return this == ALL;
+    }
+
+    String getQuery() {
+        return query;
+    }
+
+    @Override
+    public boolean test(Task task) {
+        if (status != null && task.getStatus() != status) {
+            return false;
+        }
+        if (pomodoros != null && !pomodoros.test(task.getCompletedPomodoros())) {
+            return false;
+        }
+        for (String word : words) {
+            if (!containsIgnoreCase(task.getTitle(), word) && !containsIgnoreCase(task.getDescription(), word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TaskStatus parseStatus(String value) {
+        for (TaskStatus candidate : TaskStatus.values()) {
+            if (candidate.name().equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // "<op><number>" after the pomodoros keyword
+    private static IntPredicate parseCount(String expression) {
+        String[] operators = {">=", "<=", ">", "<", "=", ":"}; // Two-character operators first
+        for (String operator : operators) {
+            if (expression.startsWith(operator)) {
+                int value;
+                try {
+                    value = Integer.parseInt(expression.substring(operator.length()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                switch (operator) {
+                    case ">=":
+                        return count -> count >= value;
+                    case "<=":
+                        return count -> count <= value;
+                    case ">":
+                        return count -> count > value;
+                    case "<":
+                        return count -> count < value;
+                    default:
+                        return count -> count == value;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Substring search without lower-casing copies of every task's text
+    private static boolean containsIgnoreCase(String text, String word) {
+        if (text == null) {
+            return false;
+        }
+        if (word.isEmpty()) {
+            return true;
+        }
+        // Cheap first-character check before the full case-insensitive compare
+        char lower = Character.toLowerCase(word.charAt(0));
+        char upper = Character.toUpperCase(word.charAt(0));
+        int last = text.length() - word.length();
+        for (int i = 0; i <= last; i++) {
+            char c = text.charAt(i);
+            if ((c == lower || c == upper) && text.regionMatches(true, i, word, 0, word.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
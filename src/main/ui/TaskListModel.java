@@ -0,0 +1,123 @@
+package main.ui;
+
+import main.model.Task;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List model of the tasks shown in FocusTrackUI
+ * Holds its own copy of the rows so the list can be refreshed one row at a
+ * time: each change fires an insert, update or delete event for just the rows
+ * involved, and the JList repaints only those that are visible. While a
+ * filter is set, added and changed tasks are only shown if they match it.
+ */
+class TaskListModel extends AbstractListModel<Task> {
+    private final List<Task> rows = new ArrayList<>();
+    private TaskFilter filter = TaskFilter.ALL;
+
+    @Override
+    public int getSize() {
+        return rows.size();
+    }
+
+    @Override
+    public Task getElementAt(int index) {
+        return rows.get(index);
+    }
+
+    /**
+     * Replace all rows
+     */
+    void setTasks(List<Task> tasks) {
+        int oldSize = rows.size();
+        rows.clear();
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        rows.addAll(tasks);
+        if (!rows.isEmpty()) {
+            fireIntervalAdded(this, 0, rows.size() - 1);
+        }
+    }
+
+    /**
+     * Remove all rows
+     */
+    void clear() {
+        int oldSize = rows.size();
+        rows.clear();
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+    }
+
+    /**
+     * Add rows at the end, e.g. as filter results stream in
+     */
+    void appendTasks(List<Task> tasks) {
+        if (!tasks.isEmpty()) {
+            int first = rows.size();
+            rows.addAll(tasks);
+            fireIntervalAdded(this, first, rows.size() - 1);
+        }
+    }
+
+    TaskFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Set the filter applied to tasks added or changed from now on; the
+     * caller fills the rows that match it
+     */
+    void setFilter(TaskFilter filter) {
+        this.filter = filter;
+    }
+
+    void taskAdded(Task task) {
+        if (!filter.test(task)) {
+            return;
+        }
+        rows.add(task);
+        fireIntervalAdded(this, rows.size() - 1, rows.size() - 1);
+    }
+
+    /**
+     * Repaint a task's row after its status, title or timer changed, or drop
+     * the row if the task no longer matches the filter
+     */
+    void taskChanged(Task task) {
+        int index = rows.indexOf(task);
+        if (index >= 0) {
+            if (filter.test(task)) {
+                fireContentsChanged(this, index, index);
+            } else {
+                rows.remove(index);
+                fireIntervalRemoved(this, index, index);
+            }
+        }
+    }
+
+    /**
+     * Repaint every row, e.g. after changes that were not shown as they happened
+     */
+    void allRowsChanged() {
+        if (!rows.isEmpty()) {
+            fireContentsChanged(this, 0, rows.size() - 1);
+        }
+    }
+
+    void taskRemoved(Task task) {
+        int index = rows.indexOf(task);
+        if (index >= 0) {
+            rows.remove(index);
+            fireIntervalRemoved(this, index, index);
+        }
+    }
+
+    int indexOf(Task task) {
+        return rows.indexOf(task);
+    }
+}
@@ -1,6 +1,8 @@
 package main.ui;
 
+import main.timer.LatencyHistogram;
 import main.timer.TaskTimer;
+import main.timer.TimeFormat;
 import main.timer.TimerManager;
 
 import java.util.List;
@@ -24,9 +26,7 @@ public class TimerDisplayManager {
         } else {
             for (int i = 0; i < timers.size(); i++) {
                 TaskTimer timer = timers.get(i);
-                summary.append(i + 1).append(". ")
-                       .append(formatSingleTimer(timer))
-                       .append("\n");
+                appendSingleTimer(summary.append(i + 1).append(". "), timer).append("\n");
             }
         }
         
@@ -37,32 +37,22 @@ public class TimerDisplayManager {
      * Format a single timer's status
      */
     public String formatSingleTimer(TaskTimer timer) {
-        return String.format("%s - %s: %s", 
-                timer.getTask().getTitle(),
-                timer.getPhaseText(),
-                timer.getFormattedTime());
+        return timer.getStatusDisplay();
     }
     
     /**
-     * Formats a progress bar for visual representation
+     * Append a single timer's status to a buffer without allocating
+     */
+    public StringBuilder appendSingleTimer(StringBuilder out, TaskTimer timer) {
+        return timer.appendStatus(out);
+    }
+    
+    /**
+     * Formats a progress bar for visual representation; bars are cached per
+     * width and fill, so this allocates nothing once warmed up
      */
     public String formatProgressBar(int currentSeconds, int totalSeconds, int width) {
-        if (totalSeconds <= 0) {
-            totalSeconds = 1; // Prevent division by zero
-        }
-        int progress = (int) (((double) (totalSeconds - currentSeconds) / totalSeconds) * width);
-        StringBuilder bar = new StringBuilder("[");
-        
-        for (int i = 0; i < width; i++) {
-            if (i < progress) {
-                bar.append("=");
-            } else {
-                bar.append(" ");
-            }
-        }
-        
-        bar.append("]");
-        return bar.toString();
+        return TimeFormat.progressBar(currentSeconds, totalSeconds, width);
     }
     
     /**
@@ -77,6 +67,21 @@ public class TimerDisplayManager {
      * Get a full summary of timer status from the TimerManager
      */
     public String getTimerStatusSummary(TimerManager timerManager) {
-        return formatTimerStatus(timerManager.getAllActiveTimers());
+        StringBuilder summary = new StringBuilder();
+        summary.append("\n===== Active Timers =====\n");
+        
+        int[] count = {0};
+        timerManager.forEachActiveTimer(timer -> appendSingleTimer(summary.append(++count[0]).append(". "), timer)
+                                                        .append("\n"));
+        if (count[0] == 0) {
+            summary.append("No active timers.\n");
+        }
+        
+        LatencyHistogram latency = timerManager.getTickLatency();
+        if (latency.getCount() > 0) {
+            TimeFormat.appendLatency(summary.append("Tick latency: "), latency).append('\n');
+        }
+        
+        return summary.toString();
     }
 }
\ No newline at end of file
@@ -5,60 +5,221 @@ import main.model.TaskManager;
 import main.sound.SoundManager;
 import main.timer.*;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * UI class for the timer application
  * Separates UI concerns from the timer logic
+ * Runs on a single event loop thread: lines typed by the user, the once a
+ * second display refresh and delayed steps (such as the sound test) are all
+ * events on it, so console output never interleaves. Nothing on the loop
+ * waits for input; a reader thread hands each line to whichever prompt is
+ * open, and lines typed ahead are kept until a prompt asks for them. Besides
+ * the numbered options, the main menu accepts any ConsoleCommands command.
  */
 public class TimerUI {
     private final TaskManager taskManager;
     private final TimerManager timerManager;
     private final TimerDisplayManager displayManager;
+    private final ConsoleRenderer renderer;
     private final SoundManager soundManager;
-    private final Scanner scanner;
-    private final ScheduledExecutorService timerDisplayExecutor;
+    private final TimerStrategyRegistry strategyRegistry;
+    private final ConsoleCommands commands;
+    private final ScheduledExecutorService eventLoop;
+    private final CountDownLatch exited;
+    // Only touched on the event loop
+    private final Queue<String> typedAhead;
+    private Consumer<String> inputHandler; // The open prompt, or null while none is
+    private boolean endOfInput;
+    private boolean dispatching;
+    private boolean firstMenu;
     private boolean running;
     
     public TimerUI() {
         this.taskManager = TaskManager.getInstance();
         this.timerManager = TimerManager.getInstance();
         this.displayManager = new TimerDisplayManager();
+        this.renderer = new ConsoleRenderer(System.out);
         this.soundManager = SoundManager.getInstance();
-        this.scanner = new Scanner(System.in);
-        this.timerDisplayExecutor = Executors.newSingleThreadScheduledExecutor();
+        this.strategyRegistry = TimerStrategyRegistry.getInstance();
+        this.commands = new ConsoleCommands(taskManager, timerManager, strategyRegistry,
+                timer -> setupTimerListener(timer, timer.getTask()));
+        this.eventLoop = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "console-loop"));
+        this.exited = new CountDownLatch(1);
+        this.typedAhead = new ArrayDeque<>();
+        this.firstMenu = true;
         this.running = false;
     }
     
     public void start() {
         running = true;
+        strategyRegistry.startWatching();
         
-        // Start a separate thread for displaying timer updates
-        startTimerDisplayUpdater();
+        // Resume timers left running by the previous session
+        for (TaskTimer timer : timerManager.restoreTimers(taskManager.getTasks())) {
+            setupTimerListener(timer, timer.getTask());
+        }
         
-        while (running) {
-            // Display menu
-            displayMenu();
-            
-            // Process user input
-            int choice = getIntInput();
-            
-            // Temporarily disable timer display updates during menu interaction
-            timerManager.setTimerUpdateDisplayEnabled(false);
-            
-            processMenuChoice(choice);
-            
-            // Re-enable timer display updates
-            timerManager.setTimerUpdateDisplayEnabled(true);
+        eventLoop.execute(this::showMenu);
+        // Rewrites only the parts of the menu that changed, usually the countdowns
+        eventLoop.scheduleAtFixedRate(this::refreshDisplay, 1, 1, TimeUnit.SECONDS);
+        startInputReader();
+        
+        try {
+            exited.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
         
         // Clean up
         shutdown();
     }
     
+    /**
+     * Read lines on a thread of their own and hand them to the event loop
+     */
+    private void startInputReader() {
+        Thread reader = new Thread(() -> {
+            BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
+            try {
+                try {
+                    String line;
+                    while ((line = input.readLine()) != null) {
+                        String typed = line;
+                        eventLoop.execute(() -> lineTyped(typed));
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error reading input: " + e.getMessage());
+                }
+                eventLoop.execute(this::inputEnded);
+            } catch (RejectedExecutionException e) {
+                // The loop has stopped, so nothing is waiting for input any more
+            }
+        }, "console-input");
+        reader.setDaemon(true);
+        reader.start();
+    }
+    
+    private void lineTyped(String line) {
+        typedAhead.add(line);
+        dispatchInput();
+    }
+    
+    private void inputEnded() {
+        endOfInput = true;
+        dispatchInput();
+    }
+    
+    /**
+     * Feed typed lines to the open prompt, each handler opening the next one
+     */
+    private void dispatchInput() {
+        if (dispatching) {
+            return; // Called from a handler: the dispatch already running feeds the next prompt
+        }
+        dispatching = true;
+        try {
+            dispatchTypedLines();
+        } finally {
+            dispatching = false;
+        }
+    }
+    
+    private void dispatchTypedLines() {
+        while (running && inputHandler != null) {
+            String line = typedAhead.poll();
+            if (line == null) {
+                if (endOfInput) {
+                    exit(); // Nothing more will be typed
+                }
+                return;
+            }
+            Consumer<String> handler = inputHandler;
+            inputHandler = null;
+            // The screen no longer shows only what was drawn
+            renderer.invalidate();
+            try {
+                handler.accept(line);
+            } catch (RuntimeException e) {
+                // Don't leave the user without a prompt
+                System.out.println("Error: " + e.getMessage());
+                showMenu();
+            }
+        }
+    }
+    
+    /**
+     * Print a prompt and handle the next line typed
+     */
+    private void prompt(String text, Consumer<String> handler) {
+        System.out.print(text);
+        System.out.flush();
+        inputHandler = handler;
+    }
+    
+    /**
+     * Prompt for a number; anything else is passed on as -1
+     */
+    private void promptInt(String text, IntConsumer handler) {
+        prompt(text, line -> handler.accept(parseInt(line)));
+    }
+    
+    /**
+     * Prompt for a positive number, falling back to a default
+     */
+    private void promptPositiveInt(String text, int defaultValue, IntConsumer handler) {
+        prompt(text, line -> {
+            int value = parseInt(line);
+            handler.accept(value > 0 ? value : defaultValue);
+        });
+    }
+    
+    private void waitForEnter(Runnable next) {
+        System.out.println("Press Enter to continue...");
+        prompt("", line -> next.run());
+    }
+    
+    private void exit() {
+        if (running) {
+            running = false;
+            System.out.println("Exiting application...");
+            exited.countDown();
+        }
+    }
+    
+    private void showMenu() {
+        renderer.draw(buildMenu());
+        inputHandler = this::menuInput;
+        if (firstMenu) {
+            firstMenu = false;
+            StartupTiming.firstFrameShown("console");
+            // Load sounds in the background now that the menu is up
+            soundManager.prefetch();
+        }
+        dispatchInput();
+    }
+    
+    private void menuInput(String line) {
+        String trimmed = line.trim();
+        if (!trimmed.isEmpty() && !Character.isDigit(trimmed.charAt(0)) && trimmed.charAt(0) != '-') {
+            runCommand(trimmed);
+            return;
+        }
+        processMenuChoice(parseInt(line));
+    }
+    
     private void processMenuChoice(int choice) {
         switch (choice) {
             case 1:
@@ -66,7 +227,7 @@ public class TimerUI {
                 break;
             case 2:
                 listTasks();
-                waitForEnter();
+                waitForEnter(this::showMenu);
                 break;
             case 3:
                 startTimer();
@@ -87,101 +248,101 @@ public class TimerUI {
                 soundSettings();
                 break;
             case 9:
-                running = false;
-                System.out.println("Exiting application...");
+                exit();
                 break;
             default:
                 System.out.println("Invalid option. Please try again.");
                 soundManager.playSound(SoundManager.SoundType.ERROR);
-                waitForEnter();
+                waitForEnter(this::showMenu);
         }
     }
     
-    private void displayMenu() {
-        displayManager.clearConsole();
-        System.out.println("\n===== Task Timer Application =====");
-        System.out.println("1. Add Task");
-        System.out.println("2. List Tasks");
-        System.out.println("3. Start Timer for Task");
-        System.out.println("4. Pause Timer");
-        System.out.println("5. Resume Timer");
-        System.out.println("6. Cancel Timer");
-        System.out.println("7. Mark Task as Completed");
-        System.out.println("8. Sound Settings");
-        System.out.println("9. Exit");
+    /**
+     * Run a typed command such as "start 2 short" from the menu prompt
+     */
+    private void runCommand(String line) {
+        StringBuilder shown = new StringBuilder();
+        try {
+            String result = commands.execute(line, shown);
+            System.out.print(shown);
+            if (result != null) {
+                System.out.println(result);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            soundManager.playSound(SoundManager.SoundType.ERROR);
+        }
+        waitForEnter(this::showMenu);
+    }
+    
+    private String buildMenu() {
+        StringBuilder menu = new StringBuilder();
+        menu.append("\n===== Task Timer Application =====\n");
+        menu.append("1. Add Task\n");
+        menu.append("2. List Tasks\n");
+        menu.append("3. Start Timer for Task\n");
+        menu.append("4. Pause Timer\n");
+        menu.append("5. Resume Timer\n");
+        menu.append("6. Cancel Timer\n");
+        menu.append("7. Mark Task as Completed\n");
+        menu.append("8. Sound Settings\n");
+        menu.append("9. Exit\n");
+        menu.append("Or type a command, such as \"start 0 short\" (help for the list)\n");
         
         // Display sound status
-        System.out.println("\nSound: " + (soundManager.isSoundEnabled() ? "ON" : "OFF") + 
-                          " (Volume: " + Math.round(soundManager.getVolume() * 100) + "%)");
+        menu.append("\nSound: ").append(soundManager.isSoundEnabled() ? "ON" : "OFF")
+            .append(" (Volume: ").append(Math.round(soundManager.getVolume() * 100)).append("%)\n");
         
         // Display timer status if any active timers
-        if (!timerManager.getAllActiveTimers().isEmpty()) {
-            System.out.println(displayManager.getTimerStatusSummary(timerManager));
+        if (timerManager.hasActiveTimers()) {
+            menu.append(displayManager.getTimerStatusSummary(timerManager)).append('\n');
         }
         
-        System.out.print("Choose an option: ");
+        menu.append("Choose an option: ");
+        return menu.toString();
     }
     
-    private void startTimerDisplayUpdater() {
-        timerDisplayExecutor.scheduleAtFixedRate(() -> {
-            if (timerManager.isTimerUpdateDisplayEnabled() && !timerManager.getAllActiveTimers().isEmpty()) {
-                displayManager.clearConsole();
-                displayMenu();
-            }
-        }, 1, 1, TimeUnit.SECONDS);
+    private void refreshDisplay() {
+        // Does nothing unless the menu is what's on screen
+        if (timerManager.hasActiveTimers()) {
+            renderer.update(buildMenu());
+        }
     }
     
     private void addTask() {
-        System.out.print("Enter task title: ");
-        String title = scanner.nextLine();
-        
-        System.out.print("Enter task description: ");
-        String description = scanner.nextLine();
-        
-        Task task = new Task(title, description);
-        taskManager.addTask(task);
-        
-        System.out.println("Task added successfully!");
-        waitForEnter();
+        prompt("Enter task title: ", title ->
+            prompt("Enter task description: ", description -> {
+                try {
+                    taskManager.addTask(new Task(ConsoleCommands.text(title), ConsoleCommands.text(description)));
+                    System.out.println("Task added successfully!");
+                } catch (IllegalArgumentException e) {
+                    System.out.println(e.getMessage());
+                    soundManager.playSound(SoundManager.SoundType.ERROR);
+                }
+                waitForEnter(this::showMenu);
+            }));
     }
     
     private void listTasks() {
-        System.out.println("\n===== Task List =====");
-        
-        if (taskManager.getTasks().isEmpty()) {
-            System.out.println("No tasks available.");
-            return;
-        }
-        
-        for (int i = 0; i < taskManager.getTasks().size(); i++) {
-            Task task = taskManager.getTasks().get(i);
-            String timerStatus = timerManager.hasActiveTimer(task) ? " [⏱️ Active]" : "";
-            System.out.println(i + ": " + task.getTitle() + " - " + task.getStatus() + timerStatus);
-            if (task.getCompletedPomodoros() > 0) {
-                System.out.println("   Completed pomodoros: " + task.getCompletedPomodoros());
-            }
-        }
-        
-        System.out.println("\nProgress: " + taskManager.getCompletionRate() + "%");
+        StringBuilder list = new StringBuilder();
+        commands.appendTaskList(list);
+        System.out.print(list);
     }
     
     private void soundSettings() {
-        boolean settingsActive = true;
-        
-        while (settingsActive) {
-            displayManager.clearConsole();
-            System.out.println("\n===== Sound Settings =====");
-            System.out.println("1. " + (soundManager.isSoundEnabled() ? "Disable" : "Enable") + " Sound");
-            System.out.println("2. Increase Volume");
-            System.out.println("3. Decrease Volume");
-            System.out.println("4. Test Sounds");
-            System.out.println("5. Back to Main Menu");
-            System.out.println("\nCurrent status: Sound " + (soundManager.isSoundEnabled() ? "ON" : "OFF") + 
-                              ", Volume: " + Math.round(soundManager.getVolume() * 100) + "%");
-            System.out.print("\nChoose an option: ");
-            
-            int choice = getIntInput();
-            
+        displayManager.clearConsole();
+        System.out.println("\n===== Sound Settings =====");
+        System.out.println("1. " + (soundManager.isSoundEnabled() ? "Disable" : "Enable") + " Sound");
+        System.out.println("2. Increase Volume");
+        System.out.println("3. Decrease Volume");
+        System.out.println("4. Test Sounds");
+        System.out.println("5. Back to Main Menu");
+        System.out.println("\nCurrent status: Sound " + (soundManager.isSoundEnabled() ? "ON" : "OFF") + 
+                          ", Volume: " + Math.round(soundManager.getVolume() * 100) + "%");
+        System.out.println("Notifications: " + soundManager.getEmittedCount() + " played, " +
+                          soundManager.getSuppressedCount() + " suppressed during bursts");
+        
+        promptInt("\nChoose an option: ", choice -> {
             switch (choice) {
                 case 1:
                     soundManager.setSoundEnabled(!soundManager.isSoundEnabled());
@@ -196,129 +357,157 @@ public class TimerUI {
                     System.out.println("Volume decreased to " + Math.round(soundManager.getVolume() * 100) + "%");
                     break;
                 case 4:
-                    testSounds();
-                    break;
+                    testSounds(() -> waitForEnter(this::soundSettings));
+                    return;
                 case 5:
-                    settingsActive = false;
-                    break;
+                    showMenu();
+                    return;
                 default:
                     System.out.println("Invalid option. Please try again.");
             }
-            
-            if (settingsActive && choice != 5) {
-                waitForEnter();
-            }
-        }
+            waitForEnter(this::soundSettings);
+        });
     }
     
-    private void testSounds() {
+    /**
+     * Play each notification sound in turn, 1.5 s apart, without holding up the loop
+     */
+    private void testSounds(Runnable then) {
         System.out.println("\nPlaying test sounds...");
         
         System.out.println("Work complete sound:");
         soundManager.playSound(SoundManager.SoundType.WORK_COMPLETE);
-        try { Thread.sleep(1500); } catch (InterruptedException e) { }
-        
-        System.out.println("Break complete sound:");
-        soundManager.playSound(SoundManager.SoundType.BREAK_COMPLETE);
-        try { Thread.sleep(1500); } catch (InterruptedException e) { }
         
-        System.out.println("Timer complete sound:");
-        soundManager.playSound(SoundManager.SoundType.TIMER_COMPLETE);
-        try { Thread.sleep(1500); } catch (InterruptedException e) { }
-        
-        System.out.println("Error sound:");
-        soundManager.playSound(SoundManager.SoundType.ERROR);
+        later(1500, () -> {
+            System.out.println("Break complete sound:");
+            soundManager.playSound(SoundManager.SoundType.BREAK_COMPLETE);
+            
+            later(1500, () -> {
+                System.out.println("Timer complete sound:");
+                soundManager.playSound(SoundManager.SoundType.TIMER_COMPLETE);
+                
+                later(1500, () -> {
+                    System.out.println("Error sound:");
+                    soundManager.playSound(SoundManager.SoundType.ERROR);
+                    then.run();
+                    dispatchInput();
+                });
+            });
+        });
+    }
+    
+    private void later(long delayMillis, Runnable step) {
+        eventLoop.schedule(() -> {
+            if (running) {
+                step.run();
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
     }
     
     private void startTimer() {
         // Show task list
         listTasks();
         
-        System.out.print("Enter task number to start timer: ");
-        int taskIndex = getIntInput();
-        
-        if (!isValidTaskIndex(taskIndex)) {
-            return;
-        }
-        
-        Task task = taskManager.getTasks().get(taskIndex);
-        TimerStrategy strategy = selectTimerStrategy();
-        
-        if (strategy == null) {
-            System.out.println("Timer setup cancelled.");
-            waitForEnter();
-            return;
-        }
-        
-        // Start the timer
-        final TaskTimer timer = timerManager.startTimer(task, strategy);
-        setupTimerListener(timer, task);
-        
-        System.out.println("Timer started for task: " + task.getTitle());
-        System.out.println("Strategy: " + strategy.getName() + " - " + strategy.getDescription());
-        waitForEnter();
+        selectTask("Enter task number to start timer: ", task -> selectTimerStrategy(strategy -> {
+            if (strategy == null) {
+                System.out.println("Timer setup cancelled.");
+                waitForEnter(this::showMenu);
+                return;
+            }
+            
+            // Start the timer
+            final TaskTimer timer = timerManager.startTimer(task, strategy);
+            setupTimerListener(timer, task);
+            
+            System.out.println("Timer started for task: " + task.getTitle());
+            System.out.println("Strategy: " + strategy.getName() + " - " + strategy.getDescription());
+            waitForEnter(this::showMenu);
+        }));
     }
     
-    private TimerStrategy selectTimerStrategy() {
+    /**
+     * Ask for a strategy; the handler gets null if the user cancelled
+     */
+    private void selectTimerStrategy(Consumer<TimerStrategy> handler) {
         System.out.println("\nSelect timer strategy:");
         System.out.println("1. Pomodoro (25-5)");
         System.out.println("2. Short Break (15-3)");
         System.out.println("3. Long Break (50-10)");
         System.out.println("4. Custom Timer");
-        System.out.print("Choose a strategy (or 0 to cancel): ");
-        
-        int strategyChoice = getIntInput();
+        System.out.println("5. Pomodoro Session (4x 25-5, then 15)");
+        System.out.println("6. Saved Timer");
         
-        if (strategyChoice == 0) {
-            return null;
-        }
-        
-        if (strategyChoice == 4) {
-            return createCustomStrategy();
-        }
-        
-        TimerStrategyType type;
-        switch (strategyChoice) {
-            case 1:
-                type = TimerStrategyType.POMODORO;
-                break;
-            case 2:
-                type = TimerStrategyType.SHORT_BREAK;
-                break;
-            case 3:
-                type = TimerStrategyType.LONG_BREAK;
-                break;
-            default:
-                System.out.println("Invalid strategy, using Pomodoro by default.");
-                soundManager.playSound(SoundManager.SoundType.ERROR);
-                type = TimerStrategyType.POMODORO;
-        }
-        
-        return TimerStrategyFactory.createStrategy(type);
+        promptInt("Choose a strategy (or 0 to cancel): ", strategyChoice -> {
+            if (strategyChoice == 0) {
+                handler.accept(null);
+                return;
+            }
+            
+            if (strategyChoice == 4) {
+                createCustomStrategy(handler);
+                return;
+            }
+            
+            if (strategyChoice == 6) {
+                selectSavedStrategy(handler);
+                return;
+            }
+            
+            TimerStrategyType type;
+            switch (strategyChoice) {
+                case 1:
+                    type = TimerStrategyType.POMODORO;
+                    break;
+                case 2:
+                    type = TimerStrategyType.SHORT_BREAK;
+                    break;
+                case 3:
+                    type = TimerStrategyType.LONG_BREAK;
+                    break;
+                case 5:
+                    type = TimerStrategyType.POMODORO_SESSION;
+                    break;
+                default:
+                    System.out.println("Invalid strategy, using Pomodoro by default.");
+                    soundManager.playSound(SoundManager.SoundType.ERROR);
+                    type = TimerStrategyType.POMODORO;
+            }
+            
+            handler.accept(TimerStrategyFactory.createStrategy(type));
+        });
     }
     
-    private TimerStrategy createCustomStrategy() {
+    private void createCustomStrategy(Consumer<TimerStrategy> handler) {
         System.out.println("\n=== Custom Timer Setup ===");
         
-        System.out.print("Enter a name for this timer: ");
-        String name = scanner.nextLine();
-        
-        System.out.print("Enter a description: ");
-        String description = scanner.nextLine();
-        
-        System.out.print("Enter work duration (minutes): ");
-        int workDuration = getPositiveIntInput(25); // Default to 25 if invalid
-        
-        System.out.print("Enter work duration (minutes): ");
-        int workSeconds = getPositiveIntInput(0);
+        prompt("Enter a name for this timer: ", name ->
+        prompt("Enter a description: ", description ->
+        promptPositiveInt("Enter work duration (minutes): ", 25, workDuration ->
+        promptPositiveInt("Enter work duration (seconds): ", 0, workSeconds ->
+        promptPositiveInt("Enter break duration (minutes): ", 5, breakDuration ->
+        promptPositiveInt("Enter break duration (seconds): ", 0, breakSeconds -> {
+            TimerStrategy strategy = TimerStrategyFactory.createCustomStrategy(name, description, workDuration, workSeconds, breakDuration, breakSeconds);
+            // Keep it so it can be picked again later
+            handler.accept(strategyRegistry.register(strategy));
+        }))))));
+    }
+    
+    private void selectSavedStrategy(Consumer<TimerStrategy> handler) {
+        List<ImmutableTimerStrategy> saved = strategyRegistry.getCustomStrategies();
+        if (saved.isEmpty()) {
+            System.out.println("No saved timers yet. Create a custom timer first.");
+            handler.accept(null);
+            return;
+        }
         
-        System.out.print("Enter break duration (minutes): ");
-        int breakDuration = getPositiveIntInput(5); // Default to 5 if invalid
-
-        System.out.print("Enter work duration (minutes): ");
-        int breakSeconds = getPositiveIntInput(0);
+        System.out.println("\nSaved timers:");
+        for (int i = 0; i < saved.size(); i++) {
+            TimerStrategy strategy = saved.get(i);
+            System.out.println((i + 1) + ". " + strategy.getName() + " - " + strategy.getDescription());
+        }
         
-        return TimerStrategyFactory.createCustomStrategy(name, description, workDuration, workSeconds, breakDuration, breakSeconds);
+        promptInt("Choose a timer (or 0 to cancel): ", choice ->
+            handler.accept(choice < 1 || choice > saved.size() ? null : saved.get(choice - 1)));
     }
     
     private void setupTimerListener(final TaskTimer timer, final Task task) {
@@ -352,153 +541,126 @@ public class TimerUI {
         // Show task list
         listTasks();
         
-        System.out.print("Enter task number to pause timer: ");
-        int taskIndex = getIntInput();
-        
-        if (!isValidTaskIndex(taskIndex)) {
-            return;
-        }
-        
-        Task task = taskManager.getTasks().get(taskIndex);
-        
-        if (!timerManager.hasActiveTimer(task)) {
-            System.out.println("No active timer for this task.");
-            soundManager.playSound(SoundManager.SoundType.ERROR);
-            waitForEnter();
-            return;
-        }
-        
-        timerManager.pauseTimer(task);
-        System.out.println("Timer paused for task: " + task.getTitle());
-        waitForEnter();
+        selectTask("Enter task number to pause timer: ", task -> {
+            if (!timerManager.hasActiveTimer(task)) {
+                System.out.println("No active timer for this task.");
+                soundManager.playSound(SoundManager.SoundType.ERROR);
+                waitForEnter(this::showMenu);
+                return;
+            }
+            
+            timerManager.pauseTimer(task);
+            System.out.println("Timer paused for task: " + task.getTitle());
+            waitForEnter(this::showMenu);
+        });
     }
     
     private void resumeTimer() {
         // Show task list
         listTasks();
         
-        System.out.print("Enter task number to resume timer: ");
-        int taskIndex = getIntInput();
-        
-        if (!isValidTaskIndex(taskIndex)) {
-            return;
-        }
-        
-        Task task = taskManager.getTasks().get(taskIndex);
-        TaskTimer timer = timerManager.getTimerForTask(task);
-        
-        if (timer == null || timer.isRunning()) {
-            System.out.println("No paused timer for this task.");
-            soundManager.playSound(SoundManager.SoundType.ERROR);
-            waitForEnter();
-            return;
-        }
-        
-        timerManager.resumeTimer(task);
-        System.out.println("Timer resumed for task: " + task.getTitle());
-        waitForEnter();
+        selectTask("Enter task number to resume timer: ", task -> {
+            TaskTimer timer = timerManager.getTimerForTask(task);
+            
+            if (timer == null || timer.isRunning()) {
+                System.out.println("No paused timer for this task.");
+                soundManager.playSound(SoundManager.SoundType.ERROR);
+                waitForEnter(this::showMenu);
+                return;
+            }
+            
+            timerManager.resumeTimer(task);
+            System.out.println("Timer resumed for task: " + task.getTitle());
+            waitForEnter(this::showMenu);
+        });
     }
     
     private void cancelTimer() {
         // Show task list
         listTasks();
         
-        System.out.print("Enter task number to cancel timer: ");
-        int taskIndex = getIntInput();
-        
-        if (!isValidTaskIndex(taskIndex)) {
-            return;
-        }
-        
-        Task task = taskManager.getTasks().get(taskIndex);
-        
-        if (timerManager.getTimerForTask(task) == null) {
-            System.out.println("No timer for this task.");
-            soundManager.playSound(SoundManager.SoundType.ERROR);
-            waitForEnter();
-            return;
-        }
-        
-        timerManager.cancelTimer(task);
-        System.out.println("Timer cancelled for task: " + task.getTitle());
-        waitForEnter();
+        selectTask("Enter task number to cancel timer: ", task -> {
+            if (timerManager.getTimerForTask(task) == null) {
+                System.out.println("No timer for this task.");
+                soundManager.playSound(SoundManager.SoundType.ERROR);
+                waitForEnter(this::showMenu);
+                return;
+            }
+            
+            timerManager.cancelTimer(task);
+            System.out.println("Timer cancelled for task: " + task.getTitle());
+            waitForEnter(this::showMenu);
+        });
     }
     
     private void completeTask() {
         // Show task list
         listTasks();
         
-        System.out.print("Enter task number to mark as completed: ");
-        int taskIndex = getIntInput();
-        
-        if (!isValidTaskIndex(taskIndex)) {
-            return;
-        }
-        
-        taskManager.completeTask(taskIndex);
-        System.out.println("Task marked as completed.");
-        
-        // Cancel any timers for this task
-        Task task = taskManager.getTasks().get(taskIndex);
-        if (timerManager.getTimerForTask(task) != null) {
-            timerManager.cancelTimer(task);
-        }
-        
-        waitForEnter();
+        promptInt("Enter task number to mark as completed: ", taskIndex -> {
+            if (!isValidTaskIndex(taskIndex)) {
+                return;
+            }
+            
+            taskManager.completeTask(taskIndex);
+            System.out.println("Task marked as completed.");
+            
+            // Cancel any timers for this task
+            Task task = taskManager.getTasks().get(taskIndex);
+            if (timerManager.getTimerForTask(task) != null) {
+                timerManager.cancelTimer(task);
+            }
+            
+            waitForEnter(this::showMenu);
+        });
+    }
+    
+    /**
+     * Prompt for a task number and pass on the task, if it is valid
+     */
+    private void selectTask(String text, Consumer<Task> handler) {
+        promptInt(text, taskIndex -> {
+            if (isValidTaskIndex(taskIndex)) {
+                handler.accept(taskManager.getTasks().get(taskIndex));
+            }
+        });
     }
     
     private boolean isValidTaskIndex(int taskIndex) {
         if (taskIndex < 0 || taskIndex >= taskManager.getTasks().size()) {
             System.out.println("Invalid task number.");
             soundManager.playSound(SoundManager.SoundType.ERROR);
-            waitForEnter();
+            waitForEnter(this::showMenu);
             return false;
         }
         return true;
     }
     
-    private int getIntInput() {
+    private int parseInt(String line) {
         try {
-            return Integer.parseInt(scanner.nextLine().trim());
+            return Integer.parseInt(line.trim());
         } catch (NumberFormatException e) {
             soundManager.playSound(SoundManager.SoundType.ERROR);
             return -1;
         }
     }
     
-    private int getPositiveIntInput(int defaultValue) {
-        try {
-            int value = Integer.parseInt(scanner.nextLine().trim());
-            return value > 0 ? value : defaultValue;
-        } catch (NumberFormatException e) {
-            soundManager.playSound(SoundManager.SoundType.ERROR);
-            return defaultValue;
-        }
-    }
-    
-    private void waitForEnter() {
-        System.out.println("Press Enter to continue...");
-        scanner.nextLine();
-    }
-    
     private void shutdown() {
-        timerDisplayExecutor.shutdown();
+        eventLoop.shutdownNow();
         try {
-            if (!timerDisplayExecutor.awaitTermination(800, TimeUnit.MILLISECONDS)) {
-                timerDisplayExecutor.shutdownNow();
-            }
+            eventLoop.awaitTermination(800, TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
-            timerDisplayExecutor.shutdownNow();
             Thread.currentThread().interrupt();
         }
         
-        timerManager.clearAllTimers();
+        timerManager.shutdown();
         soundManager.cleanup();
-        scanner.close();
+        // Persist task ids so checkpointed timers can be matched on next start
+        taskManager.saveTasks();
     }
     
     public static void main(String[] args) {
         TimerUI ui = new TimerUI();
         ui.start();
     }
-}
\ No newline at end of file
+}